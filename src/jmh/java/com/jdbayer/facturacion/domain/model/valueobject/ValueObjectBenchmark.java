@@ -0,0 +1,51 @@
+package com.jdbayer.facturacion.domain.model.valueobject;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de construir Email y Name: validación completa (entrada del
+ * usuario) vs rehidratación (valores leídos de la BD).
+ *
+ * Ejecutar con: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValueObjectBenchmark {
+
+    private final String email = "Juan.Perez@Example.com";
+    private final String name = "  juan  ";
+
+    @Benchmark
+    public Email newEmail() {
+        return new Email(email);
+    }
+
+    @Benchmark
+    public Email rehydrateEmail() {
+        return Email.rehydrate("juan.perez@example.com");
+    }
+
+    @Benchmark
+    public Name newName() {
+        return new Name(name);
+    }
+
+    @Benchmark
+    public Name rehydrateName() {
+        return Name.rehydrate("JUAN");
+    }
+}
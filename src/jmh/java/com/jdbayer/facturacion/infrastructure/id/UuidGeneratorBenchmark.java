@@ -0,0 +1,57 @@
+package com.jdbayer.facturacion.infrastructure.id;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de generar IDs: UUIDv4 (UUID.randomUUID) vs UuidV7Generator,
+ * con un hilo y con 8 hilos compitiendo por el mismo generador.
+ *
+ * El efecto en la BD (inserciones y tamaño del índice) se mide con
+ * src/test/resources/db/benchmark/uuid_v4_v7_insert.sql.
+ *
+ * Ejecutar con: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UuidGeneratorBenchmark {
+
+    private final UuidV7Generator v7 = new UuidV7Generator();
+
+    @Benchmark
+    public UUID v4() {
+        return UUID.randomUUID();
+    }
+
+    @Benchmark
+    public UUID v7() {
+        return v7.newId();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public UUID v4Contended() {
+        return UUID.randomUUID();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public UUID v7Contended() {
+        return v7.newId();
+    }
+}
@@ -0,0 +1,68 @@
+package com.jdbayer.facturacion.infrastructure.persistence.mapper;
+
+import com.jdbayer.facturacion.application.dto.response.UserResponse;
+import com.jdbayer.facturacion.application.mapper.UserDomainMapper;
+import com.jdbayer.facturacion.application.mapper.UserDomainMapperImpl;
+import com.jdbayer.facturacion.domain.model.User;
+import com.jdbayer.facturacion.infrastructure.persistence.entity.UserEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de cada mapper de MapStruct por separado: entidad → dominio,
+ * dominio → entidad y dominio → DTO de respuesta.
+ *
+ * El camino completo fila → DTO se compara en UserMappingBenchmark.
+ *
+ * Ejecutar con: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserMapperBenchmark {
+
+    private UserMapper userMapper;
+    private UserDomainMapper userDomainMapper;
+    private UserEntity entity;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        Instant now = Instant.now();
+        entity = new UserEntity(UUID.randomUUID(), "JUAN", "PEREZ", "juan.perez@example.com",
+                "$2a$11$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy", true, now, now, 0L);
+        userMapper = new UserMapperImpl();
+        userDomainMapper = new UserDomainMapperImpl();
+        user = userMapper.toDomain(entity);
+    }
+
+    @Benchmark
+    public User toDomain() {
+        return userMapper.toDomain(entity);
+    }
+
+    @Benchmark
+    public UserEntity toEntity() {
+        return userMapper.toEntity(user);
+    }
+
+    @Benchmark
+    public UserResponse toResponse() {
+        return userDomainMapper.toResponse(user);
+    }
+}
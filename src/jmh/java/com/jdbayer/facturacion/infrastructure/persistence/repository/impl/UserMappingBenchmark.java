@@ -0,0 +1,112 @@
+package com.jdbayer.facturacion.infrastructure.persistence.repository.impl;
+
+import com.jdbayer.facturacion.application.dto.response.UserResponse;
+import com.jdbayer.facturacion.application.mapper.UserDomainMapper;
+import com.jdbayer.facturacion.application.mapper.UserDomainMapperImpl;
+import com.jdbayer.facturacion.domain.model.User;
+import com.jdbayer.facturacion.domain.model.valueobject.Email;
+import com.jdbayer.facturacion.domain.model.valueobject.Name;
+import com.jdbayer.facturacion.domain.security.valueobject.PasswordHash;
+import com.jdbayer.facturacion.infrastructure.persistence.entity.UserEntity;
+import com.jdbayer.facturacion.infrastructure.persistence.mapper.UserMapper;
+import com.jdbayer.facturacion.infrastructure.persistence.mapper.UserMapperImpl;
+import io.r2dbc.spi.Readable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de convertir una fila de security.users en UserResponse.
+ *
+ * - validatingDomainPath: camino anterior (value objects revalidados, regex de email)
+ * - rehydratedDomainPath: UserMapper actual (value objects rehidratados)
+ * - projection: UserReadRepositoryImpl, fila directo al DTO
+ *
+ * Ejecutar con: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserMappingBenchmark {
+
+    private UserEntity entity;
+    private Readable row;
+    private UserMapper userMapper;
+    private UserDomainMapper userDomainMapper;
+
+    @Setup
+    public void setUp() {
+        UUID id = UUID.randomUUID();
+        Instant now = Instant.now();
+        entity = new UserEntity(id, "JUAN", "PEREZ", "juan.perez@example.com",
+                "$2a$11$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy", true, now, now, 0L);
+        row = new ListRow(
+                List.of("id", "name", "last_name", "email", "is_active", "created_at", "updated_at"),
+                List.of(id, "JUAN", "PEREZ", "juan.perez@example.com", true, now, now)
+        );
+        userMapper = new UserMapperImpl();
+        userDomainMapper = new UserDomainMapperImpl();
+    }
+
+    @Benchmark
+    public UserResponse validatingDomainPath() {
+        User user = new User(
+                entity.getId(),
+                new Name(entity.getName()),
+                new Name(entity.getLastName()),
+                new Email(entity.getEmail()),
+                PasswordHash.fromHash(entity.getPassword()),
+                entity.getCreatedAt(),
+                entity.getUpdatedAt(),
+                entity.getActive(),
+                entity.getTokenEpoch()
+        );
+        return userDomainMapper.toResponse(user);
+    }
+
+    @Benchmark
+    public UserResponse rehydratedDomainPath() {
+        return userDomainMapper.toResponse(userMapper.toDomain(entity));
+    }
+
+    @Benchmark
+    public UserResponse projection() {
+        return UserReadRepositoryImpl.toResponse(row);
+    }
+
+    /**
+     * Fila en memoria: aísla el mapeo del driver. Columnas en el orden del
+     * SELECT, accesibles por índice y por nombre como en una fila real.
+     */
+    private record ListRow(List<String> names, List<Object> values) implements Readable {
+
+        @Override
+        public <T> T get(int index, Class<T> type) {
+            return type.cast(values.get(index));
+        }
+
+        @Override
+        public <T> T get(String name, Class<T> type) {
+            int index = names.indexOf(name);
+            if (index < 0) {
+                throw new IllegalArgumentException("Columna inexistente: " + name);
+            }
+            return get(index, type);
+        }
+    }
+}
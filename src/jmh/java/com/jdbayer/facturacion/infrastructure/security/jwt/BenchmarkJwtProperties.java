@@ -0,0 +1,43 @@
+package com.jdbayer.facturacion.infrastructure.security.jwt;
+
+/**
+ * JwtProperties con los valores de application.yaml, sin levantar el
+ * contexto de Spring. Compartido por los benchmarks de JWT.
+ */
+public final class BenchmarkJwtProperties extends JwtProperties {
+
+    @Override
+    public String getSecret() {
+        return "benchmark-secret-key-with-at-least-256-bits-0123456789";
+    }
+
+    @Override
+    public String getHeaderPrefix() {
+        return "Bearer ";
+    }
+
+    @Override
+    public String getHeaderName() {
+        return "Authorization";
+    }
+
+    @Override
+    public long getExpiration() {
+        return 3_600_000L;
+    }
+
+    @Override
+    public long getRefreshExpiration() {
+        return 604_800_000L;
+    }
+
+    @Override
+    public long getCacheMaxSize() {
+        return 10_000L;
+    }
+
+    @Override
+    public long getCacheTtl() {
+        return 900_000L;
+    }
+}
@@ -0,0 +1,82 @@
+package com.jdbayer.facturacion.infrastructure.security.jwt.impl;
+
+import com.jdbayer.facturacion.domain.model.User;
+import com.jdbayer.facturacion.domain.model.valueobject.Email;
+import com.jdbayer.facturacion.domain.model.valueobject.Name;
+import com.jdbayer.facturacion.domain.security.valueobject.PasswordHash;
+import com.jdbayer.facturacion.infrastructure.security.jwt.BenchmarkJwtProperties;
+import com.jdbayer.facturacion.infrastructure.security.jwt.JwtProperties;
+import com.jdbayer.facturacion.infrastructure.security.jwt.VerifiedTokenCache;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de emitir y verificar access tokens con JwtServiceImpl (HS256).
+ *
+ * validateToken y extractAllClaims parsean y verifican la firma en cada
+ * llamada; no pasan por VerifiedTokenCache.
+ *
+ * Ejecutar con: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private JwtServiceImpl jwtService;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtProperties properties = new BenchmarkJwtProperties();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        jwtService = new JwtServiceImpl(properties, new VerifiedTokenCache(properties, meterRegistry), meterRegistry);
+
+        Instant now = Instant.now();
+        user = new User(
+                UUID.randomUUID(),
+                new Name("JUAN"),
+                new Name("PEREZ"),
+                new Email("juan.perez@example.com"),
+                PasswordHash.fromHash("$2a$11$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy"),
+                now,
+                now,
+                true,
+                0L
+        );
+        token = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtService.validateToken(token);
+    }
+
+    @Benchmark
+    public Claims extractAllClaims() {
+        return jwtService.extractAllClaims(token);
+    }
+}
@@ -0,0 +1,18 @@
+package com.jdbayer.facturacion.application.repository;
+
+import com.jdbayer.facturacion.application.dto.response.UserResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Consultas de solo lectura sobre usuarios.
+ *
+ * A diferencia de UserRepository, no reconstruye el agregado User: retorna
+ * directamente el DTO de respuesta, sin leer la contraseña ni revalidar
+ * value objects. Solo para casos de uso que no modifican al usuario.
+ */
+public interface UserReadRepository {
+
+    Mono<UserResponse> findResponseById(UUID id);
+}
@@ -1,8 +1,7 @@
 package com.jdbayer.facturacion.application.usecase.impl;
 
 import com.jdbayer.facturacion.application.usecase.ActivateUserUseCase;
-import com.jdbayer.facturacion.domain.exception.UserNotFoundException;
-import com.jdbayer.facturacion.domain.repository.UserRepository;
+import com.jdbayer.facturacion.domain.service.UserDomainService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -14,30 +13,25 @@ import java.util.UUID;
  * Implementación del caso de uso para activar un usuario.
  *
  * Permite reactivar usuarios que fueron desactivados previamente.
+ * La activación es un UPDATE condicional: no lee el usuario antes.
  */
 @Service
 public class ActivateUserUseCaseImpl implements ActivateUserUseCase {
 
     private static final Logger log = LoggerFactory.getLogger(ActivateUserUseCaseImpl.class);
 
-    private final UserRepository userRepository;
+    private final UserDomainService userDomainService;
 
-    public ActivateUserUseCaseImpl(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    public ActivateUserUseCaseImpl(UserDomainService userDomainService) {
+        this.userDomainService = userDomainService;
     }
 
     @Override
     public Mono<Void> execute(UUID userId) {
         log.debug("Activando usuario con ID: {}", userId);
 
-        return userRepository.findById(userId)
-                .switchIfEmpty(Mono.error(new UserNotFoundException(userId)))
-                .flatMap(user -> {
-                    user.activate();
-                    return userRepository.save(user);
-                })
-                .then()
+        return userDomainService.activateUser(userId)
                 .doOnSuccess(v -> log.info("Usuario activado exitosamente: {}", userId))
-                .doOnError(error -> log.error("Error al activar usuario: {}", error.getMessage()));
+                .doOnError(error -> log.debug("Error al activar usuario: {}", error.getMessage()));
     }
 }
\ No newline at end of file
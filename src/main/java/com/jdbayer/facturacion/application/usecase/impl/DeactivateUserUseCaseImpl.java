@@ -1,9 +1,8 @@
 package com.jdbayer.facturacion.application.usecase.impl;
 
 import com.jdbayer.facturacion.application.usecase.DeactivateUserUseCase;
-import com.jdbayer.facturacion.domain.exception.UserNotFoundException;
-import com.jdbayer.facturacion.domain.repository.UserRepository;
 import com.jdbayer.facturacion.domain.service.UserDomainService;
+import com.jdbayer.facturacion.infrastructure.security.service.TokenManagementService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -15,39 +14,34 @@ import java.util.UUID;
  * Implementación del caso de uso para desactivar un usuario.
  *
  * La desactivación es un borrado lógico: el usuario permanece en la BD
- * pero no puede autenticarse ni realizar operaciones.
+ * pero no puede autenticarse ni realizar operaciones. Sus tokens emitidos
+ * se revocan de inmediato.
+ *
+ * La desactivación es un UPDATE condicional: no lee el usuario antes.
  */
 @Service
 public class DeactivateUserUseCaseImpl implements DeactivateUserUseCase {
 
     private static final Logger log = LoggerFactory.getLogger(DeactivateUserUseCaseImpl.class);
 
-    private final UserRepository userRepository;
     private final UserDomainService userDomainService;
+    private final TokenManagementService tokenManagementService;
 
     public DeactivateUserUseCaseImpl(
-            UserRepository userRepository,
-            UserDomainService userDomainService
+            UserDomainService userDomainService,
+            TokenManagementService tokenManagementService
     ) {
-        this.userRepository = userRepository;
         this.userDomainService = userDomainService;
+        this.tokenManagementService = tokenManagementService;
     }
 
     @Override
     public Mono<Void> execute(UUID userId) {
         log.debug("Desactivando usuario con ID: {}", userId);
 
-        return userRepository.findById(userId)
-                .switchIfEmpty(Mono.error(new UserNotFoundException(userId)))
-                .flatMap(user ->
-                        userDomainService.canDeactivate(user)
-                                .then(Mono.defer(() -> {
-                                    user.deactivate();
-                                    return userRepository.save(user);
-                                }))
-                )
-                .then()
+        return userDomainService.deactivateUser(userId)
+                .then(Mono.defer(() -> tokenManagementService.invalidateAllUserTokens(userId, "user_deactivated")))
                 .doOnSuccess(v -> log.info("Usuario desactivado exitosamente: {}", userId))
-                .doOnError(error -> log.error("Error al desactivar usuario: {}", error.getMessage()));
+                .doOnError(error -> log.debug("Error al desactivar usuario: {}", error.getMessage()));
     }
 }
\ No newline at end of file
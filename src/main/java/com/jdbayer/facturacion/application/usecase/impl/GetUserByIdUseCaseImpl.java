@@ -1,10 +1,9 @@
 package com.jdbayer.facturacion.application.usecase.impl;
 
 import com.jdbayer.facturacion.application.dto.response.UserResponse;
-import com.jdbayer.facturacion.application.mapper.UserDomainMapper;
+import com.jdbayer.facturacion.application.repository.UserReadRepository;
 import com.jdbayer.facturacion.application.usecase.GetUserByIdUseCase;
 import com.jdbayer.facturacion.domain.exception.UserNotFoundException;
-import com.jdbayer.facturacion.domain.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -14,28 +13,29 @@ import java.util.UUID;
 
 /**
  * Implementación del caso de uso para obtener un usuario por ID.
+ *
+ * Es de solo lectura: usa la proyección UserReadRepository, que responde
+ * desde el cache de usuarios si el usuario ya está cacheado y, si no, lee
+ * solo las columnas de la respuesta (sin contraseña ni agregado User).
  */
 @Service
 public class GetUserByIdUseCaseImpl implements GetUserByIdUseCase {
 
     private static final Logger log = LoggerFactory.getLogger(GetUserByIdUseCaseImpl.class);
 
-    private final UserRepository userRepository;
-    private final UserDomainMapper userMapper;
+    private final UserReadRepository userReadRepository;
 
-    public GetUserByIdUseCaseImpl(UserRepository userRepository, UserDomainMapper userMapper) {
-        this.userRepository = userRepository;
-        this.userMapper = userMapper;
+    public GetUserByIdUseCaseImpl(UserReadRepository userReadRepository) {
+        this.userReadRepository = userReadRepository;
     }
 
     @Override
     public Mono<UserResponse> execute(UUID userId) {
         log.debug("Buscando usuario con ID: {}", userId);
 
-        return userRepository.findById(userId)
+        return userReadRepository.findResponseById(userId)
                 .switchIfEmpty(Mono.error(new UserNotFoundException(userId)))
-                .map(userMapper::toResponse)
                 .doOnSuccess(response -> log.debug("Usuario encontrado: {}", response.email()))
-                .doOnError(error -> log.error("Error al buscar usuario: {}", error.getMessage()));
+                .doOnError(error -> log.debug("Error al buscar usuario: {}", error.getMessage()));
     }
 }
\ No newline at end of file
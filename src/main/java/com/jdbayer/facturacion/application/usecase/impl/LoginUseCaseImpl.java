@@ -4,6 +4,7 @@ import com.jdbayer.facturacion.application.dto.request.LoginRequest;
 import com.jdbayer.facturacion.application.dto.response.AuthResponse;
 import com.jdbayer.facturacion.application.mapper.UserDomainMapper;
 import com.jdbayer.facturacion.application.usecase.LoginUseCase;
+import com.jdbayer.facturacion.domain.model.User;
 import com.jdbayer.facturacion.domain.model.valueobject.Email;
 import com.jdbayer.facturacion.domain.service.UserDomainService;
 import com.jdbayer.facturacion.infrastructure.security.jwt.JwtService;
@@ -21,6 +22,9 @@ import reactor.core.publisher.Mono;
  * 2. Generación del token JWT (JwtService)
  * 3. Generación del refresh token (TokenManagementService)
  * 4. Mapeo a DTO de respuesta
+ *
+ * Si el hash de la contraseña usa un costo o algoritmo anterior, se regenera
+ * en segundo plano sin retrasar la respuesta del login.
  */
 @Service
 public class LoginUseCaseImpl implements LoginUseCase {
@@ -50,6 +54,7 @@ public class LoginUseCaseImpl implements LoginUseCase {
 
         return Mono.fromCallable(() -> new Email(request.email()))
                 .flatMap(email -> userDomainService.authenticateUser(email, request.password()))
+                .doOnNext(user -> rehashInBackground(user, request.password()))
                 .flatMap(user -> {
                     // Generar access token JWT real
                     String token = jwtService.generateToken(user);
@@ -67,6 +72,15 @@ public class LoginUseCaseImpl implements LoginUseCase {
                     });
                 })
                 .doOnSuccess(response -> log.info("Usuario autenticado exitosamente: {}", response.user().email()))
-                .doOnError(error -> log.error("Error al autenticar usuario: {}", error.getMessage()));
+                .doOnError(error -> log.debug("Error al autenticar usuario: {}", error.getMessage()));
+    }
+
+    private void rehashInBackground(User user, String rawPassword) {
+        userDomainService.rehashPasswordIfNeeded(user, rawPassword)
+                .subscribe(
+                        rehashed -> log.info("Hash de contraseña actualizado para usuario: {}", rehashed.getId()),
+                        error -> log.warn("No se pudo actualizar el hash de contraseña del usuario {}: {}",
+                                user.getId(), error.getMessage())
+                );
     }
-}
\ No newline at end of file
+}
@@ -48,6 +48,6 @@ public class LogoutUseCaseImpl implements LogoutUseCase {
                     );
                 })
                 .doOnSuccess(v -> log.info("Logout exitoso para usuario: {}", userId))
-                .doOnError(error -> log.error("Error en logout: {}", error.getMessage()));
+                .doOnError(error -> log.debug("Error en logout: {}", error.getMessage()));
     }
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import com.jdbayer.facturacion.application.dto.request.RefreshTokenRequest;
 import com.jdbayer.facturacion.application.dto.response.AuthResponse;
 import com.jdbayer.facturacion.application.mapper.UserDomainMapper;
 import com.jdbayer.facturacion.application.usecase.RefreshTokenUseCase;
+import com.jdbayer.facturacion.domain.exception.InvalidUserStateException;
 import com.jdbayer.facturacion.domain.exception.UserNotFoundException;
 import com.jdbayer.facturacion.domain.repository.UserRepository;
 import com.jdbayer.facturacion.infrastructure.security.jwt.JwtService;
@@ -16,12 +17,13 @@ import reactor.core.publisher.Mono;
  * Implementación del caso de uso para renovar tokens.
  *
  * Implementa el patrón de rotación de refresh tokens:
- * 1. Valida el refresh token
- * 2. Genera nuevo access token
- * 3. Genera nuevo refresh token
- * 4. Invalida el refresh token anterior
+ * 1. Verifica el refresh token (firma y expiración) y carga al usuario
+ * 2. Consume el refresh token (un solo UPDATE atómico) y genera el nuevo, en una
+ *    transacción; el anterior queda marcado como usado hasta expirar
+ * 3. Genera nuevo access token
  *
- * Este patrón mejora la seguridad al prevenir la reutilización de refresh tokens.
+ * Este patrón mejora la seguridad al prevenir la reutilización de refresh tokens:
+ * presentar de nuevo un token ya usado revoca todos los tokens del usuario.
  */
 @Service
 @Slf4j
@@ -52,49 +54,40 @@ public class RefreshTokenUseCaseImpl implements RefreshTokenUseCase {
     ) {
         log.debug("Procesando solicitud de refresh token");
 
-        return tokenManagementService.validateAndUseRefreshToken(request.refreshToken())
-                .flatMap(refreshToken -> {
-                    // Buscar el usuario
-                    return userRepository.findById(refreshToken.getUserId())
+        return Mono.fromCallable(() -> tokenManagementService.verifyRefreshToken(request.refreshToken()))
+                .flatMap(verifiedToken -> {
+                    // Buscar el usuario (subject del refresh token)
+                    return userRepository.findById(verifiedToken.userId())
                             .switchIfEmpty(Mono.error(
-                                    new UserNotFoundException(refreshToken.getUserId())
+                                    new UserNotFoundException(verifiedToken.userId())
                             ))
                             .flatMap(user -> {
                                 // Verificar que el usuario esté activo
                                 if (!user.isActive()) {
-                                    return Mono.error(new IllegalStateException(
+                                    return Mono.error(new InvalidUserStateException(
                                             "El usuario está inactivo"
                                     ));
                                 }
 
-                                // Generar nuevo access token
-                                String newAccessToken = jwtService.generateToken(user);
-
-                                // Generar nuevo refresh token (rotación)
-                                return tokenManagementService.createRefreshToken(
+                                // Rotar el refresh token (consumir el anterior + crear el nuevo, en una transacción)
+                                return tokenManagementService.rotateRefreshToken(
+                                        request.refreshToken(),
+                                        verifiedToken,
                                         user,
                                         ipAddress,
                                         userAgent
-                                ).flatMap(newRefreshToken -> {
-                                    // Invalidar el refresh token anterior
-                                    return tokenManagementService.revokeRefreshToken(
-                                            request.refreshToken()
-                                    ).then(Mono.defer(() -> {
-                                        // Crear respuesta
-                                        var userResponse = userMapper.toResponse(user);
-                                        var authResponse = new AuthResponse(
-                                                newAccessToken,
-                                                userResponse
-                                        );
+                                ).map(newRefreshToken -> {
+                                    // Generar nuevo access token
+                                    String newAccessToken = jwtService.generateToken(user);
+                                    var userResponse = userMapper.toResponse(user);
 
-                                        log.info("Tokens renovados exitosamente para usuario: {}",
-                                                user.getEmail().value());
+                                    log.info("Tokens renovados exitosamente para usuario: {}",
+                                            user.getEmail().value());
 
-                                        return Mono.just(authResponse);
-                                    }));
+                                    return new AuthResponse(newAccessToken, newRefreshToken, userResponse);
                                 });
                             });
                 })
-                .doOnError(error -> log.error("Error al renovar tokens: {}", error.getMessage()));
+                .doOnError(error -> log.debug("Error al renovar tokens: {}", error.getMessage()));
     }
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import com.jdbayer.facturacion.application.dto.request.RegisterUserRequest;
 import com.jdbayer.facturacion.application.dto.response.UserResponse;
 import com.jdbayer.facturacion.application.mapper.UserDomainMapper;
 import com.jdbayer.facturacion.application.usecase.RegisterUserUseCase;
+import com.jdbayer.facturacion.domain.model.IdGenerator;
 import com.jdbayer.facturacion.domain.model.User;
 import com.jdbayer.facturacion.domain.model.valueobject.Email;
 import com.jdbayer.facturacion.domain.model.valueobject.Name;
@@ -18,11 +19,16 @@ import reactor.core.publisher.Mono;
  * Implementación del caso de uso de registro de usuario.
  *
  * Orquesta:
- * 1. Validación de email único (UserDomainService)
+ * 1. Creación de los value objects (valida el request antes de hashear)
  * 2. Creación del hash de contraseña (UserDomainService)
  * 3. Creación de la entidad User
  * 4. Persistencia (UserRepository)
  * 5. Mapeo a DTO de respuesta
+ *
+ * La unicidad del email no se consulta antes: el INSERT la resuelve con la
+ * restricción única y UserRepository emite DuplicateEmailException. Así el
+ * registro hace un solo viaje a la BD y dos registros concurrentes con el
+ * mismo email no pueden pasar ambos.
  */
 @Service
 public class RegisterUserUseCaseImpl implements RegisterUserUseCase {
@@ -32,15 +38,18 @@ public class RegisterUserUseCaseImpl implements RegisterUserUseCase {
     private final UserRepository userRepository;
     private final UserDomainService userDomainService;
     private final UserDomainMapper userMapper;
+    private final IdGenerator idGenerator;
 
     public RegisterUserUseCaseImpl(
             UserRepository userRepository,
             UserDomainService userDomainService,
-            UserDomainMapper userMapper
+            UserDomainMapper userMapper,
+            IdGenerator idGenerator
     ) {
         this.userRepository = userRepository;
         this.userDomainService = userDomainService;
         this.userMapper = userMapper;
+        this.idGenerator = idGenerator;
     }
 
     @Override
@@ -59,21 +68,20 @@ public class RegisterUserUseCaseImpl implements RegisterUserUseCase {
                     Name name = (Name) objects[1];
                     Name lastName = (Name) objects[2];
 
-                    // Validar que el email sea único
-                    return userDomainService.ensureEmailIsUnique(email)
-                            .then(Mono.defer(() -> {
-                                // Crear hash de contraseña
-                                var passwordHash = userDomainService.createPasswordHash(request.password());
-
+                    // Crear hash de contraseña (fuera del event loop)
+                    return userDomainService.createPasswordHash(request.password())
+                            .flatMap(passwordHash -> {
                                 // Crear entidad User
-                                var user = User.create(name, lastName, email, passwordHash);
+                                var user = User.create(idGenerator, name, lastName, email, passwordHash);
 
-                                // Persistir
+                                // Persistir (falla con DuplicateEmailException si el email existe).
+                                // El duplicado se detecta después del hash; los intentos repetidos
+                                // los acota AuthRateLimiter.checkRegister antes de llegar aquí.
                                 return userRepository.save(user);
-                            }));
+                            });
                 })
                 .map(userMapper::toResponse)
                 .doOnSuccess(response -> log.info("Usuario registrado exitosamente con ID: {}", response.id()))
-                .doOnError(error -> log.error("Error al registrar usuario: {}", error.getMessage()));
+                .doOnError(error -> log.debug("Error al registrar usuario: {}", error.getMessage()));
     }
 }
\ No newline at end of file
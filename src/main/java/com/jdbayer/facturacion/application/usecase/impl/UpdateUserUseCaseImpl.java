@@ -51,7 +51,7 @@ public class UpdateUserUseCaseImpl implements UpdateUserUseCase {
                 .flatMap(userRepository::save)
                 .map(userMapper::toResponse)
                 .doOnSuccess(response -> log.info("Usuario actualizado exitosamente: {}", response.id()))
-                .doOnError(error -> log.error("Error al actualizar usuario: {}", error.getMessage()));
+                .doOnError(error -> log.debug("Error al actualizar usuario: {}", error.getMessage()));
     }
 
     /**
@@ -2,16 +2,24 @@ package com.jdbayer.facturacion.domain.exception;
 
 import java.io.Serial;
 
+/**
+ * Excepción base del dominio.
+ *
+ * Representa errores de negocio esperados (credenciales inválidas, email
+ * duplicado, usuario inexistente), no fallos del programa: no captura el
+ * stack trace, que es la parte costosa de crear una excepción y no aporta
+ * información para estos casos.
+ */
 public class DomainException extends RuntimeException {
 
     @Serial
     private static final long serialVersionUID = -3264972526042693034L;
 
     public DomainException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 
     public DomainException(String message, Throwable cause) {
-        super(message, cause);
+        super(message, cause, false, false);
     }
 }
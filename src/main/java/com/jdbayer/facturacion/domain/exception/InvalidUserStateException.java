@@ -0,0 +1,17 @@
+package com.jdbayer.facturacion.domain.exception;
+
+import java.io.Serial;
+
+/**
+ * El usuario no está en un estado que permita la operación
+ * (por ejemplo, desactivar un usuario ya inactivo).
+ */
+public class InvalidUserStateException extends DomainException {
+
+    @Serial
+    private static final long serialVersionUID = 5307713623254860377L;
+
+    public InvalidUserStateException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package com.jdbayer.facturacion.domain.model;
+
+import java.util.UUID;
+
+/**
+ * Puerto para generar identificadores de agregados.
+ *
+ * La implementación decide el formato (por ejemplo, UUIDv7 ordenado por
+ * tiempo); el dominio solo necesita IDs únicos.
+ */
+public interface IdGenerator {
+
+    UUID newId();
+}
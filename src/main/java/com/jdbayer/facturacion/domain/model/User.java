@@ -3,22 +3,46 @@ package com.jdbayer.facturacion.domain.model;
 import com.jdbayer.facturacion.domain.model.valueobject.Email;
 import com.jdbayer.facturacion.domain.model.valueobject.Name;
 import com.jdbayer.facturacion.domain.security.valueobject.PasswordHash;
+import lombok.AccessLevel;
 import lombok.Getter;
 
 import java.time.Instant;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
+/**
+ * Agregado User.
+ *
+ * Registra qué campos cambiaron desde que se cargó o se guardó por última vez,
+ * para que el repositorio escriba solo esas columnas (o nada, si no hubo cambios).
+ */
 @Getter
 public class User {
+
+    /**
+     * Campos modificables del usuario.
+     */
+    public enum Field {
+        NAME, LAST_NAME, EMAIL, PASSWORD_HASH, ACTIVE
+    }
+
     private final UUID id;
     private Name name;
     private Name lastName;
     private Email email;
-    private final PasswordHash passwordHash;
+    private PasswordHash passwordHash;
     private final Instant createdAt;
     private Instant updatedAt;
     private boolean active;
+    private final long tokenEpoch;
+
+    @Getter(AccessLevel.NONE)
+    private final EnumSet<Field> changedFields = EnumSet.noneOf(Field.class);
+    @Getter(AccessLevel.NONE)
+    private boolean newUser;
 
     public User(
             UUID id,
@@ -28,7 +52,8 @@ public class User {
             PasswordHash passwordHash,
             Instant createdAt,
             Instant updatedAt,
-            boolean active
+            boolean active,
+            long tokenEpoch
     ) {
         this.id = Objects.requireNonNull(id);
         this.name = Objects.requireNonNull(name);
@@ -38,50 +63,119 @@ public class User {
         this.createdAt = Objects.requireNonNull(createdAt);
         this.updatedAt = updatedAt != null ? updatedAt : createdAt;
         this.active = active;
+        this.tokenEpoch = tokenEpoch;
     }
 
+    /**
+     * Crea un usuario nuevo. El ID lo asigna el generador (UUIDv7 en producción).
+     */
     public static User create(
+            IdGenerator idGenerator,
             Name name,
             Name lastName,
             Email email,
             PasswordHash passwordHash
     ) {
-        return new User(
-                UUID.randomUUID(),
+        Instant now = Instant.now();
+        User user = new User(
+                idGenerator.newId(),
                 Objects.requireNonNull(name, "El nombre es obligatorio"),
                 Objects.requireNonNull(lastName, "El apellido es obligatorio"),
                 Objects.requireNonNull(email, "El email es obligatorio"),
                 Objects.requireNonNull(passwordHash, "La contraseña es obligatoria"),
-                Instant.now(),
-                Instant.now(),
-                true
+                now,
+                now,
+                true,
+                0L
         );
+        user.newUser = true;
+        return user;
     }
 
     public void changeName(Name newName, Name newLastName) {
         Objects.requireNonNull(newName, "El nuevo nombre es obligatorio");
         Objects.requireNonNull(newLastName, "El nuevo apellido es obligatorio");
-        this.name = newName;
-        this.lastName = newLastName;
-        this.updatedAt = Instant.now();
+        if (!newName.equals(this.name)) {
+            this.name = newName;
+            markChanged(Field.NAME);
+        }
+        if (!newLastName.equals(this.lastName)) {
+            this.lastName = newLastName;
+            markChanged(Field.LAST_NAME);
+        }
     }
 
     public void changeEmail(Email newEmail) {
         Objects.requireNonNull(newEmail, "El nuevo email es obligatorio");
-        this.email = newEmail;
-        this.updatedAt = Instant.now();
+        if (!newEmail.equals(this.email)) {
+            this.email = newEmail;
+            markChanged(Field.EMAIL);
+        }
+    }
+
+    /**
+     * Reemplaza el hash de la contraseña (misma contraseña, nuevo algoritmo o costo).
+     */
+    public void rehashPassword(PasswordHash newPasswordHash) {
+        Objects.requireNonNull(newPasswordHash, "El nuevo hash es obligatorio");
+        if (!newPasswordHash.equals(this.passwordHash)) {
+            this.passwordHash = newPasswordHash;
+            markChanged(Field.PASSWORD_HASH);
+        }
     }
 
     public void deactivate() {
-        this.active = false;
-        this.updatedAt = Instant.now();
+        if (this.active) {
+            this.active = false;
+            markChanged(Field.ACTIVE);
+        }
     }
 
     public void activate() {
-        this.active = true;
+        if (!this.active) {
+            this.active = true;
+            markChanged(Field.ACTIVE);
+        }
+    }
+
+    private void markChanged(Field field) {
+        this.changedFields.add(field);
         this.updatedAt = Instant.now();
     }
 
+    /**
+     * Indica si el usuario se creó con {@link #create} y aún no se guardó.
+     */
+    public boolean isNew() {
+        return newUser;
+    }
+
+    /**
+     * Campos modificados desde la última carga o guardado.
+     */
+    public Set<Field> getChangedFields() {
+        return Collections.unmodifiableSet(changedFields);
+    }
+
+    public boolean hasChanges() {
+        return !changedFields.isEmpty();
+    }
+
+    /**
+     * Lo invoca el repositorio tras guardar: el estado en memoria coincide con la BD.
+     */
+    public void markPersisted() {
+        this.newUser = false;
+        this.changedFields.clear();
+    }
+
+    /**
+     * Copia independiente del usuario. Los value objects son inmutables y se comparten.
+     */
+    public User copy() {
+        return new User(id, name, lastName, email, passwordHash, createdAt, updatedAt, active, tokenEpoch);
+    }
+
     // IMPORTANTE: Para entidades, equals y hashCode basados en ID
     @Override
     public boolean equals(Object o) {
@@ -3,16 +3,55 @@ package com.jdbayer.facturacion.domain.model.valueobject;
 import com.jdbayer.facturacion.domain.exception.InvalidEmailException;
 
 import java.util.Objects;
+import java.util.regex.Pattern;
 
-public record Email(String value) {
+public final class Email {
+
+    private static final Pattern FORMAT = Pattern.compile("^[^@]+@[^@]+\\.[^@]+$");
+
+    private final String value;
 
     public Email(String value) {
         Objects.requireNonNull(value, "El email es obligatorio");
         String normalizado = value.trim().toLowerCase();
         if (normalizado.isBlank())
             throw new InvalidEmailException("El email no puede estar vacío");
-        if (!normalizado.matches("^[^@]+@[^@]+\\.[^@]+$"))
+        if (!FORMAT.matcher(normalizado).matches())
             throw new InvalidEmailException("Email inválido");
         this.value = normalizado;
     }
+
+    private Email(String value, boolean trusted) {
+        this.value = value;
+    }
+
+    /**
+     * Reconstruye un email ya validado y normalizado (leído de la BD).
+     * No repite la normalización ni la validación: usar solo con datos persistidos.
+     */
+    public static Email rehydrate(String value) {
+        return new Email(Objects.requireNonNull(value, "El email es obligatorio"), true);
+    }
+
+    public String value() {
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Email email = (Email) o;
+        return value.equals(email.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return value.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "Email[value=" + value + "]";
+    }
 }
@@ -5,7 +5,9 @@ import com.jdbayer.facturacion.domain.exception.InvalidNameException;
 
 import java.util.Objects;
 
-public record Name(String value) {
+public final class Name {
+
+    private final String value;
 
     public Name(String value) {
         Objects.requireNonNull(value, "El nombre es obligatorio");
@@ -16,4 +18,38 @@ public record Name(String value) {
             throw new InvalidNameException("El nombre no puede exceder 100 caracteres");
         this.value = normalizado;
     }
+
+    private Name(String value, boolean trusted) {
+        this.value = value;
+    }
+
+    /**
+     * Reconstruye un nombre ya validado y normalizado (leído de la BD).
+     * No repite la normalización ni la validación: usar solo con datos persistidos.
+     */
+    public static Name rehydrate(String value) {
+        return new Name(Objects.requireNonNull(value, "El nombre es obligatorio"), true);
+    }
+
+    public String value() {
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Name name = (Name) o;
+        return value.equals(name.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return value.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "Name[value=" + value + "]";
+    }
 }
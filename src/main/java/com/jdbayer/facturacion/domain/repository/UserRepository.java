@@ -2,8 +2,10 @@ package com.jdbayer.facturacion.domain.repository;
 
 import com.jdbayer.facturacion.domain.model.User;
 import com.jdbayer.facturacion.domain.model.valueobject.Email;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
 import java.util.UUID;
 
 public interface UserRepository {
@@ -12,9 +14,25 @@ public interface UserRepository {
 
     Mono<User> findById(UUID id);
 
+    Flux<User> findAllByIds(Collection<UUID> ids);
+
     Mono<User> findByEmail(Email email);
 
     Mono<Boolean> existsByEmail(Email email);
 
+    /**
+     * Activa el usuario si está inactivo (transición atómica).
+     *
+     * @return Mono<Boolean> true si cambió de estado, false si no existe o ya estaba activo
+     */
+    Mono<Boolean> activate(UUID id);
+
+    /**
+     * Desactiva el usuario si está activo (transición atómica).
+     *
+     * @return Mono<Boolean> true si cambió de estado, false si no existe o ya estaba inactivo
+     */
+    Mono<Boolean> deactivate(UUID id);
+
     Mono<Void> deleteById(UUID id);
 }
@@ -1,7 +1,21 @@
 package com.jdbayer.facturacion.domain.security;
 
+import reactor.core.publisher.Mono;
+
+/**
+ * Puerto para el hashing de contraseñas.
+ *
+ * Es reactivo porque los algoritmos de hashing de contraseñas son lentos a
+ * propósito: la implementación debe ejecutarlos fuera del event loop.
+ */
 public interface PasswordEncoder {
 
-    String encode(String rawPassword);
-    boolean matches(String rawPassword, String encodedPassword);
-}
\ No newline at end of file
+    Mono<String> encode(String rawPassword);
+    Mono<Boolean> matches(String rawPassword, String encodedPassword);
+
+    /**
+     * Indica si el hash usa un algoritmo o costo anterior y debe regenerarse.
+     * Es barato: solo inspecciona el hash.
+     */
+    boolean upgradeEncoding(String encodedPassword);
+}
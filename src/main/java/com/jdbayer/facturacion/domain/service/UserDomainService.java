@@ -2,6 +2,7 @@ package com.jdbayer.facturacion.domain.service;
 
 import com.jdbayer.facturacion.domain.exception.DuplicateEmailException;
 import com.jdbayer.facturacion.domain.exception.InvalidCredentialsException;
+import com.jdbayer.facturacion.domain.exception.InvalidUserStateException;
 import com.jdbayer.facturacion.domain.exception.UserNotFoundException;
 import com.jdbayer.facturacion.domain.model.User;
 import com.jdbayer.facturacion.domain.model.valueobject.Email;
@@ -29,23 +30,6 @@ public class UserDomainService {
         this.passwordEncoder = passwordEncoder;
     }
 
-    /**
-     * Valida que el email no esté duplicado.
-     * Regla de negocio: No pueden existir dos usuarios con el mismo email.
-     *
-     * @param email Email a validar
-     * @return Mono<Void> que emite error si el email ya existe
-     */
-    public Mono<Void> ensureEmailIsUnique(Email email) {
-        return userRepository.existsByEmail(email)
-                .flatMap(exists -> {
-                    if (exists) {
-                        return Mono.error(new DuplicateEmailException(email.value()));
-                    }
-                    return Mono.empty();
-                });
-    }
-
     /**
      * Valida que el email no esté duplicado, excluyendo al usuario actual.
      * Útil para cuando un usuario quiere cambiar su email a uno nuevo.
@@ -87,16 +71,10 @@ public class UserDomainService {
                     }
 
                     // Validar contraseña
-                    boolean passwordMatches = passwordEncoder.matches(
-                            rawPassword,
-                            user.getPasswordHash().value()
-                    );
-
-                    if (!passwordMatches) {
-                        return Mono.error(new InvalidCredentialsException());
-                    }
-
-                    return Mono.just(user);
+                    return passwordEncoder.matches(rawPassword, user.getPasswordHash().value())
+                            .flatMap(passwordMatches -> passwordMatches
+                                    ? Mono.just(user)
+                                    : Mono.error(new InvalidCredentialsException()));
                 });
     }
 
@@ -105,11 +83,11 @@ public class UserDomainService {
      * Encapsula la lógica de dominio de cómo se procesan las contraseñas.
      *
      * @param rawPassword Contraseña en texto plano
-     * @return PasswordHash con la contraseña hasheada
+     * @return Mono<PasswordHash> con la contraseña hasheada
      */
-    public PasswordHash createPasswordHash(String rawPassword) {
-        String encodedPassword = passwordEncoder.encode(rawPassword);
-        return PasswordHash.fromHash(encodedPassword);
+    public Mono<PasswordHash> createPasswordHash(String rawPassword) {
+        return passwordEncoder.encode(rawPassword)
+                .map(PasswordHash::fromHash);
     }
 
     /**
@@ -117,12 +95,32 @@ public class UserDomainService {
      *
      * @param rawPassword Contraseña en texto plano
      * @param passwordHash Hash almacenado
-     * @return true si coinciden, false en caso contrario
+     * @return Mono<Boolean> con true si coinciden, false en caso contrario
      */
-    public boolean verifyPassword(String rawPassword, PasswordHash passwordHash) {
+    public Mono<Boolean> verifyPassword(String rawPassword, PasswordHash passwordHash) {
         return passwordEncoder.matches(rawPassword, passwordHash.value());
     }
 
+    /**
+     * Regenera el hash de la contraseña si usa un algoritmo o costo anterior.
+     * Solo puede hacerse tras un login exitoso, que es cuando se conoce la
+     * contraseña en texto plano.
+     *
+     * @param user Usuario recién autenticado
+     * @param rawPassword Contraseña en texto plano (ya verificada)
+     * @return Mono<User> con el usuario actualizado, vacío si el hash está al día
+     */
+    public Mono<User> rehashPasswordIfNeeded(User user, String rawPassword) {
+        if (!passwordEncoder.upgradeEncoding(user.getPasswordHash().value())) {
+            return Mono.empty();
+        }
+        return createPasswordHash(rawPassword)
+                .flatMap(newHash -> {
+                    user.rehashPassword(newHash);
+                    return userRepository.save(user);
+                });
+    }
+
     /**
      * Valida que un usuario exista y esté activo.
      * Útil para operaciones que requieren un usuario válido.
@@ -152,13 +150,54 @@ public class UserDomainService {
      */
     public Mono<Void> canChangeEmail(User user, Email newEmail) {
         if (!user.isActive()) {
-            return Mono.error(new IllegalStateException("Usuario inactivo no puede cambiar el email"));
+            return Mono.error(new InvalidUserStateException("Usuario inactivo no puede cambiar el email"));
         }
 
         // Validar que el nuevo email no esté en uso por otro usuario
         return ensureEmailIsUniqueExcludingUser(newEmail, user.getId());
     }
 
+    /**
+     * Activa un usuario. Activar un usuario ya activo no es un error.
+     *
+     * La transición es una sola sentencia condicional; solo si no cambió
+     * ninguna fila se consulta el usuario para distinguir "no existe" de
+     * "ya estaba activo".
+     *
+     * @param userId ID del usuario
+     * @return Mono<Void> que emite error si el usuario no existe
+     * @throws UserNotFoundException si el usuario no existe
+     */
+    public Mono<Void> activateUser(UUID userId) {
+        return userRepository.activate(userId)
+                .flatMap(changed -> changed
+                        ? Mono.<Void>empty()
+                        : userRepository.findById(userId)
+                                .switchIfEmpty(Mono.error(new UserNotFoundException(userId)))
+                                .then());
+    }
+
+    /**
+     * Desactiva un usuario aplicando las reglas de {@link #canDeactivate(UUID)}.
+     *
+     * La regla "debe estar activo" la garantiza la propia sentencia
+     * (WHERE is_active = true), sin carrera entre la lectura y la escritura.
+     *
+     * @param userId ID del usuario
+     * @return Mono<Void> que emite error si no puede ser desactivado
+     * @throws UserNotFoundException si el usuario no existe
+     */
+    public Mono<Void> deactivateUser(UUID userId) {
+        return canDeactivate(userId)
+                .then(userRepository.deactivate(userId))
+                .flatMap(changed -> changed
+                        ? Mono.<Void>empty()
+                        : userRepository.findById(userId)
+                                .switchIfEmpty(Mono.error(new UserNotFoundException(userId)))
+                                .flatMap(user -> Mono.error(
+                                        new InvalidUserStateException("El usuario ya está inactivo"))));
+    }
+
     /**
      * Valida si un usuario puede ser desactivado.
      * Aquí puedes agregar reglas de negocio complejas, por ejemplo:
@@ -166,19 +205,17 @@ public class UserDomainService {
      * - No tiene transacciones en proceso
      * - No es el único administrador
      *
-     * @param user Usuario a desactivar
+     * Que el usuario esté activo lo verifica {@link #deactivateUser(UUID)}
+     * de forma atómica al desactivarlo.
+     *
+     * @param userId ID del usuario a desactivar
      * @return Mono<Void> que emite error si no puede ser desactivado
      */
-    public Mono<Void> canDeactivate(User user) {
-        // Por ahora solo validamos que esté activo
-        if (!user.isActive()) {
-            return Mono.error(new IllegalStateException("El usuario ya está inactivo"));
-        }
-
+    public Mono<Void> canDeactivate(UUID userId) {
         // Aquí puedes agregar más validaciones según tu lógica de negocio:
-        // - return facturaRepository.countPendingByUser(user.getId())
+        // - return facturaRepository.countPendingByUser(userId)
         //     .flatMap(count -> count > 0
-        //         ? Mono.error(new IllegalStateException("Tiene facturas pendientes"))
+        //         ? Mono.error(new InvalidUserStateException("Tiene facturas pendientes"))
         //         : Mono.empty());
 
         return Mono.empty();
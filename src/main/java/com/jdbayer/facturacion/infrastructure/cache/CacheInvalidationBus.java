@@ -0,0 +1,197 @@
+package com.jdbayer.facturacion.infrastructure.cache;
+
+import com.jdbayer.facturacion.infrastructure.persistence.PostgresConnections;
+import com.jdbayer.facturacion.infrastructure.security.jwt.TokenDigest;
+import io.r2dbc.postgresql.PostgresqlConnectionFactory;
+import io.r2dbc.postgresql.api.Notification;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.api.PostgresqlResult;
+import io.r2dbc.spi.ConnectionFactory;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Bus de invalidación de caches entre nodos usando LISTEN/NOTIFY de PostgreSQL.
+ *
+ * Cada instancia mantiene caches locales (blacklist, tokens verificados, etc.).
+ * Cuando un nodo escribe, publica un mensaje compacto con pg_notify y todos los
+ * nodos lo aplican a sus caches en milisegundos, sin un broker adicional.
+ *
+ * Funcionamiento:
+ * - Publicación: SELECT pg_notify(canal, payload) por el pool normal
+ * - Escucha: una conexión dedicada (fuera del pool) ejecuta LISTEN y recibe las notificaciones
+ * - Reconexión: si la conexión se pierde, se reintenta con backoff exponencial
+ * - Resincronización: en cada (re)conexión los listeners recargan su estado desde
+ *   la BD, para no perder invalidaciones ocurridas mientras no se escuchaba
+ *
+ * Los mensajes publicados por el propio nodo se ignoran al recibirse, porque ya
+ * se aplicaron localmente.
+ */
+@Component
+@Slf4j
+public class CacheInvalidationBus {
+
+    static final String CHANNEL = "security_cache_invalidation";
+
+    private final ConnectionFactory connectionFactory;
+    private final DatabaseClient databaseClient;
+    private final ObjectProvider<CacheInvalidationListener> listeners;
+    private final String nodeId = UUID.randomUUID().toString().substring(0, 8);
+
+    private volatile Disposable subscription;
+
+    public CacheInvalidationBus(
+            ConnectionFactory connectionFactory,
+            DatabaseClient databaseClient,
+            ObjectProvider<CacheInvalidationListener> listeners
+    ) {
+        this.connectionFactory = connectionFactory;
+        this.databaseClient = databaseClient;
+        this.listeners = listeners;
+    }
+
+    /**
+     * Publica que un usuario cambió (actualización, desactivación, eliminación).
+     */
+    public Mono<Void> publishUserInvalidated(UUID userId) {
+        return publish(InvalidationMessage.user(nodeId, userId));
+    }
+
+    /**
+     * Publica que un token fue agregado a la blacklist.
+     */
+    public Mono<Void> publishTokenBlacklisted(TokenDigest digest, Instant expiresAt) {
+        return publish(InvalidationMessage.tokenBlacklisted(nodeId, digest, expiresAt));
+    }
+
+    /**
+     * Envía el mensaje. Un fallo al notificar no revierte la escritura ya hecha:
+     * se registra y los demás nodos se corrigen en su próxima resincronización.
+     */
+    private Mono<Void> publish(InvalidationMessage message) {
+        return databaseClient.sql("SELECT pg_notify(:channel, :payload)")
+                .bind("channel", CHANNEL)
+                .bind("payload", message.encode())
+                .then()
+                .doOnSuccess(v -> log.debug("Invalidación publicada: {}", message))
+                .onErrorResume(error -> {
+                    log.error("Error al publicar invalidación {}: {}", message, error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Inicia la escucha cuando la aplicación está lista.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Optional<PostgresqlConnectionFactory> postgres = PostgresConnections.unwrap(connectionFactory);
+        if (postgres.isEmpty()) {
+            log.warn("La BD no es PostgreSQL: invalidación entre nodos deshabilitada");
+            resync().subscribe();
+            return;
+        }
+
+        subscription = listen(postgres.get())
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(signal -> log.warn("Conexión LISTEN perdida, reintentando: {}",
+                                signal.failure().getMessage())))
+                .subscribe(this::dispatch,
+                        error -> log.error("Bus de invalidación detenido: {}", error.getMessage()));
+    }
+
+    @PreDestroy
+    public void stop() {
+        Disposable current = subscription;
+        if (current != null) {
+            current.dispose();
+        }
+    }
+
+    /**
+     * Abre una conexión dedicada, ejecuta LISTEN y emite los mensajes recibidos.
+     *
+     * Primero se suscribe a las notificaciones y luego resincroniza, así ningún
+     * mensaje que llegue durante la resincronización se pierde. Si la conexión
+     * se cierra, se emite un error para que retryWhen reconecte.
+     */
+    private Flux<InvalidationMessage> listen(PostgresqlConnectionFactory postgres) {
+        return Flux.usingWhen(
+                postgres.create(),
+                connection -> connection.createStatement("LISTEN " + CHANNEL)
+                        .execute()
+                        .flatMap(PostgresqlResult::getRowsUpdated)
+                        .then()
+                        .doOnSuccess(v -> log.info("Escuchando invalidaciones en el canal {} (nodo {})",
+                                CHANNEL, nodeId))
+                        .thenMany(Flux.merge(
+                                notifications(connection),
+                                resync().thenMany(Flux.empty())
+                        ))
+                        .concatWith(Mono.error(new IllegalStateException("Conexión LISTEN cerrada"))),
+                PostgresqlConnection::close
+        );
+    }
+
+    private Flux<InvalidationMessage> notifications(PostgresqlConnection connection) {
+        return connection.getNotifications()
+                .map(Notification::getParameter)
+                .flatMap(payload -> {
+                    try {
+                        return Mono.just(InvalidationMessage.decode(payload));
+                    } catch (RuntimeException e) {
+                        log.warn("Mensaje de invalidación descartado: {}", e.getMessage());
+                        return Mono.empty();
+                    }
+                })
+                .filter(message -> !nodeId.equals(message.origin()));
+    }
+
+    private void dispatch(InvalidationMessage message) {
+        log.debug("Aplicando invalidación recibida: {}", message);
+        switch (message.type()) {
+            case USER -> forEachListener(listener -> listener.onUserInvalidated(message.userId()));
+            case TOKEN_BLACKLISTED -> forEachListener(listener ->
+                    listener.onTokenBlacklisted(message.tokenDigest(), message.expiresAt()));
+        }
+    }
+
+    private Mono<Void> resync() {
+        return Flux.fromStream(listeners::orderedStream)
+                .concatMap(listener -> listener.onResync()
+                        .onErrorResume(error -> {
+                            log.error("Error al resincronizar {}: {}",
+                                    listener.getClass().getSimpleName(), error.getMessage());
+                            return Mono.empty();
+                        }))
+                .then()
+                .doOnSuccess(v -> log.info("Caches locales resincronizadas"));
+    }
+
+    private void forEachListener(Consumer<CacheInvalidationListener> action) {
+        listeners.orderedStream().forEach(listener -> {
+            try {
+                action.accept(listener);
+            } catch (RuntimeException e) {
+                log.error("Error al aplicar invalidación en {}: {}",
+                        listener.getClass().getSimpleName(), e.getMessage());
+            }
+        });
+    }
+}
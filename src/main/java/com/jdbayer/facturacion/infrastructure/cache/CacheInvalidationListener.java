@@ -0,0 +1,37 @@
+package com.jdbayer.facturacion.infrastructure.cache;
+
+import com.jdbayer.facturacion.infrastructure.security.jwt.TokenDigest;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Cache local que debe mantenerse coherente con las escrituras de otros nodos.
+ *
+ * Los beans que implementan esta interfaz son notificados por
+ * {@link CacheInvalidationBus} cuando otro nodo modifica un usuario o agrega
+ * un token a la blacklist.
+ */
+public interface CacheInvalidationListener {
+
+    /**
+     * Otro nodo modificó, desactivó o eliminó el usuario.
+     */
+    default void onUserInvalidated(UUID userId) {
+    }
+
+    /**
+     * Otro nodo agregó un token a la blacklist.
+     */
+    default void onTokenBlacklisted(TokenDigest digest, Instant expiresAt) {
+    }
+
+    /**
+     * El bus (re)estableció la conexión y pudo perder notificaciones:
+     * el cache debe volver a sincronizarse con la BD.
+     */
+    default Mono<Void> onResync() {
+        return Mono.empty();
+    }
+}
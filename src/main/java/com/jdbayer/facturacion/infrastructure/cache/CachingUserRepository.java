@@ -0,0 +1,204 @@
+package com.jdbayer.facturacion.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jdbayer.facturacion.domain.model.User;
+import com.jdbayer.facturacion.domain.model.valueobject.Email;
+import com.jdbayer.facturacion.domain.repository.UserRepository;
+import com.jdbayer.facturacion.infrastructure.persistence.repository.impl.UserRepositoryImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Decorador de {@link UserRepositoryImpl} con cache local de lectura.
+ *
+ * Cachea findById y findByEmail para que los casos de uso autenticados no
+ * paguen una consulta y un mapeo por request:
+ * - Por ID: el usuario de dominio ya mapeado (Caffeine, W-TinyLFU acotado)
+ * - Por email: solo el ID; la búsqueda continúa en el cache por ID. Si el
+ *   usuario cambió de email, la entrada se descarta y se vuelve a cargar
+ * - Consultas concurrentes de la misma clave comparten una sola carga
+ * - Los usuarios inexistentes no se cachean
+ * - findAllByIds carga solo los IDs que no están en cache, en una sola consulta
+ *
+ * User es mutable, por eso cada lectura retorna una copia: un caso de uso que
+ * modifica el usuario nunca altera la instancia cacheada.
+ *
+ * Coherencia:
+ * - save, activate, deactivate y deleteById invalidan el usuario en este nodo; UserRepositoryImpl
+ *   publica la invalidación para los demás ({@link CacheInvalidationBus})
+ * - Escrituras fuera del puerto (época de tokens) deben llamar a {@link #evict(UUID)}
+ * - El TTL (cache.users.ttl) acota cuánto puede durar un valor obsoleto
+ *   si se pierde una notificación
+ *
+ * Métricas: cache.* con cache=users.by-id y cache=users.by-email (aciertos, fallos, desalojos).
+ */
+@Primary
+@Repository
+public class CachingUserRepository implements UserRepository, CacheInvalidationListener {
+
+    private final UserRepositoryImpl delegate;
+    private final AsyncCache<UUID, User> byId;
+    private final AsyncCache<String, UUID> idByEmail;
+
+    public CachingUserRepository(
+            UserRepositoryImpl delegate,
+            UserCacheProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.delegate = delegate;
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(Duration.ofMillis(properties.getTtl()))
+                .recordStats()
+                .buildAsync();
+        this.idByEmail = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(Duration.ofMillis(properties.getTtl()))
+                .recordStats()
+                .buildAsync();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "users.by-id");
+        CaffeineCacheMetrics.monitor(meterRegistry, idByEmail, "users.by-email");
+    }
+
+    @Override
+    public Mono<User> save(User user) {
+        return delegate.save(user)
+                .doOnSuccess(saved -> evict(user.getId()))
+                .doOnError(error -> evict(user.getId()));
+    }
+
+    @Override
+    public Mono<User> findById(UUID id) {
+        CompletableFuture<User> user = byId.get(id, (key, executor) ->
+                delegate.findById(key).toFuture()
+        );
+        // La carga es compartida: cancelar un request no debe cancelarla
+        return Mono.fromFuture(user, true)
+                .map(User::copy);
+    }
+
+    /**
+     * Retorna el usuario solo si ya está en el cache (o cargándose); nunca va a la BD.
+     *
+     * Lo usan las proyecciones de solo lectura: con acierto evitan la consulta,
+     * sin acierto hacen su propia consulta liviana en lugar de cargar el agregado.
+     *
+     * @param id UUID del usuario
+     * @return Mono<User> con una copia del usuario cacheado, o vacío si no está
+     */
+    public Mono<User> findCachedById(UUID id) {
+        CompletableFuture<User> user = byId.getIfPresent(id);
+        if (user == null) {
+            return Mono.empty();
+        }
+        return Mono.fromFuture(user, true)
+                .map(User::copy)
+                .onErrorResume(error -> Mono.empty());
+    }
+
+    /**
+     * Retorna los usuarios cacheados y carga los faltantes en una sola consulta.
+     */
+    @Override
+    public Flux<User> findAllByIds(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return Flux.empty();
+        }
+        CompletableFuture<Map<UUID, User>> users = byId.getAll(ids, (missing, executor) ->
+                delegate.findAllByIds(List.copyOf(missing))
+                        .collectMap(User::getId)
+                        .toFuture()
+        );
+        return Mono.fromFuture(users, true)
+                .flatMapIterable(Map::values)
+                .map(User::copy);
+    }
+
+    @Override
+    public Mono<User> findByEmail(Email email) {
+        String key = email.value();
+        CompletableFuture<UUID> id = idByEmail.get(key, (k, executor) ->
+                delegate.findByEmail(email)
+                        .doOnNext(user -> byId.asMap().putIfAbsent(user.getId(), CompletableFuture.completedFuture(user)))
+                        .map(User::getId)
+                        .toFuture()
+        );
+        return Mono.fromFuture(id, true)
+                .flatMap(this::findById)
+                .filter(user -> user.getEmail().equals(email))
+                .switchIfEmpty(Mono.defer(() -> {
+                    // El email ya no corresponde al usuario cacheado
+                    idByEmail.synchronous().invalidate(key);
+                    return delegate.findByEmail(email);
+                }));
+    }
+
+    @Override
+    public Mono<Boolean> existsByEmail(Email email) {
+        return delegate.existsByEmail(email);
+    }
+
+    @Override
+    public Mono<Boolean> activate(UUID id) {
+        return delegate.activate(id)
+                .doOnSuccess(result -> evict(id))
+                .doOnError(error -> evict(id));
+    }
+
+    @Override
+    public Mono<Boolean> deactivate(UUID id) {
+        return delegate.deactivate(id)
+                .doOnSuccess(result -> evict(id))
+                .doOnError(error -> evict(id));
+    }
+
+    @Override
+    public Mono<Void> deleteById(UUID id) {
+        return delegate.deleteById(id)
+                .doOnSuccess(result -> evict(id))
+                .doOnError(error -> evict(id));
+    }
+
+    /**
+     * Descarta el usuario (por ID y por email) del cache de este nodo.
+     */
+    public void evict(UUID id) {
+        CompletableFuture<User> cached = byId.getIfPresent(id);
+        byId.synchronous().invalidate(id);
+        if (cached != null && cached.isDone() && !cached.isCompletedExceptionally()) {
+            User user = cached.join();
+            if (user != null) {
+                idByEmail.asMap().remove(user.getEmail().value());
+            }
+        }
+    }
+
+    /**
+     * Otro nodo modificó, desactivó o eliminó el usuario.
+     */
+    @Override
+    public void onUserInvalidated(UUID userId) {
+        evict(userId);
+    }
+
+    @Override
+    public Mono<Void> onResync() {
+        return Mono.fromRunnable(() -> {
+            byId.synchronous().invalidateAll();
+            idByEmail.synchronous().invalidateAll();
+        });
+    }
+}
@@ -0,0 +1,83 @@
+package com.jdbayer.facturacion.infrastructure.cache;
+
+import com.jdbayer.facturacion.infrastructure.security.jwt.TokenDigest;
+
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Mensaje compacto de invalidación enviado por NOTIFY.
+ *
+ * Formato del payload (texto, separado por '|'):
+ * - Usuario: {origen}|U|{userId}
+ * - Token:   {origen}|T|{digestHex}|{expiresAtEpochSeconds}
+ *
+ * Nunca se envía el token completo, solo su digest SHA-256.
+ *
+ * @param origin    ID del nodo que publicó el mensaje
+ * @param type      Tipo de invalidación
+ * @param key       userId o digest del token en hexadecimal
+ * @param expiresAt Expiración del token (solo para TOKEN_BLACKLISTED)
+ */
+public record InvalidationMessage(String origin, Type type, String key, Instant expiresAt) {
+
+    private static final String SEPARATOR = "|";
+
+    public enum Type {
+        USER("U"),
+        TOKEN_BLACKLISTED("T");
+
+        private final String code;
+
+        Type(String code) {
+            this.code = code;
+        }
+
+        static Type fromCode(String code) {
+            for (Type type : values()) {
+                if (type.code.equals(code)) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Tipo de invalidación desconocido: " + code);
+        }
+    }
+
+    public InvalidationMessage {
+        Objects.requireNonNull(origin, "El origen es obligatorio");
+        Objects.requireNonNull(type, "El tipo es obligatorio");
+        Objects.requireNonNull(key, "La clave es obligatoria");
+    }
+
+    public static InvalidationMessage user(String origin, UUID userId) {
+        return new InvalidationMessage(origin, Type.USER, userId.toString(), null);
+    }
+
+    public static InvalidationMessage tokenBlacklisted(String origin, TokenDigest digest, Instant expiresAt) {
+        return new InvalidationMessage(origin, Type.TOKEN_BLACKLISTED, digest.toHex(),
+                Objects.requireNonNull(expiresAt, "La expiración es obligatoria"));
+    }
+
+    public UUID userId() {
+        return UUID.fromString(key);
+    }
+
+    public TokenDigest tokenDigest() {
+        return TokenDigest.fromHex(key);
+    }
+
+    public String encode() {
+        String payload = origin + SEPARATOR + type.code + SEPARATOR + key;
+        return expiresAt != null ? payload + SEPARATOR + expiresAt.getEpochSecond() : payload;
+    }
+
+    public static InvalidationMessage decode(String payload) {
+        String[] parts = payload.split("\\|");
+        if (parts.length < 3) {
+            throw new IllegalArgumentException("Mensaje de invalidación inválido: " + payload);
+        }
+        Instant expiresAt = parts.length > 3 ? Instant.ofEpochSecond(Long.parseLong(parts[3])) : null;
+        return new InvalidationMessage(parts[0], Type.fromCode(parts[1]), parts[2], expiresAt);
+    }
+}
@@ -0,0 +1,22 @@
+package com.jdbayer.facturacion.infrastructure.cache;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Component
+public class UserCacheProperties {
+
+    /**
+     * Usuarios en memoria por nodo.
+     */
+    @Value("${cache.users.max-size:10000}")
+    private long maxSize;
+
+    /**
+     * Tiempo máximo de un usuario en cache (ms); respaldo si se pierde una notificación.
+     */
+    @Value("${cache.users.ttl:300000}")
+    private long ttl;
+}
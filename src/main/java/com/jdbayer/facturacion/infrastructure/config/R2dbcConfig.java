@@ -1,6 +1,10 @@
 package com.jdbayer.facturacion.infrastructure.config;
 
+import com.jdbayer.facturacion.infrastructure.persistence.ObservedConnectionFactory;
+import io.micrometer.observation.ObservationRegistry;
 import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.r2dbc.config.EnableR2dbcAuditing;
@@ -39,6 +43,25 @@ public class R2dbcConfig {
         return new R2dbcTransactionManager(connectionFactory);
     }
 
+    /**
+     * Envuelve el ConnectionFactory (el pool) para observar la obtención de conexiones.
+     *
+     * Las sentencias las observa r2dbc-proxy (configurado por Spring Boot);
+     * este wrapper agrega la espera por una conexión libre del pool.
+     */
+    @Bean
+    public static BeanPostProcessor connectionAcquisitionObservation(ObjectProvider<ObservationRegistry> observationRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof ConnectionFactory connectionFactory && !(bean instanceof ObservedConnectionFactory)) {
+                    return new ObservedConnectionFactory(connectionFactory, observationRegistry);
+                }
+                return bean;
+            }
+        };
+    }
+
     /**
      * Inicializador de la base de datos (opcional).
      *
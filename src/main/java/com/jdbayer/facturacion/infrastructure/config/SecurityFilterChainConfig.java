@@ -72,6 +72,8 @@ public class SecurityFilterChainConfig {
                         // Actuator endpoints (health, info)
                         .pathMatchers("/actuator/health").permitAll()
                         .pathMatchers("/actuator/info").permitAll()
+                        // El resto de actuator (metrics, prometheus, tokens) solo para administradores
+                        .pathMatchers("/actuator/**").hasRole("ADMIN")
 
                         // Swagger/OpenAPI (si se configura)
                         .pathMatchers("/swagger-ui/**").permitAll()
@@ -0,0 +1,79 @@
+package com.jdbayer.facturacion.infrastructure.id;
+
+import com.jdbayer.facturacion.domain.model.IdGenerator;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generador de UUIDv7 (RFC 9562) monótono y sin locks.
+ *
+ * Formato: 48 bits de timestamp en ms | versión 7 | 12 bits de contador | variante | 62 bits aleatorios.
+ *
+ * Los IDs son crecientes en el tiempo, así cada INSERT cae al final del
+ * índice B-tree de la clave primaria (sin divisiones de páginas aleatorias
+ * como con UUIDv4).
+ *
+ * Monotonía (método 1 de la RFC, contador en rand_a):
+ * - Timestamp y contador comparten un AtomicLong y avanzan con CAS
+ * - En un milisegundo nuevo el contador arranca en un valor aleatorio de
+ *   11 bits (deja margen para incrementos dentro del mismo ms)
+ * - Dentro del mismo ms, o si el reloj retrocede, se incrementa el contador;
+ *   si se agota, desborda sobre el timestamp (nunca repite ni retrocede)
+ *
+ * Los 62 bits aleatorios vienen de un SecureRandom compartido: los IDs se
+ * exponen en URLs y no deben ser predecibles. SecureRandom es thread-safe; uno
+ * por hilo no sirve con hilos virtuales (User.create corre en el executor de
+ * hashing, que puede crear un hilo nuevo por registro) y obligaría a crear y
+ * sembrar una instancia en cada ID.
+ */
+@Component
+public class UuidV7Generator implements IdGenerator {
+
+    private static final int COUNTER_BITS = 12;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+    private static final int COUNTER_SEED_BOUND = 1 << (COUNTER_BITS - 1);
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final Clock clock;
+
+    /**
+     * Timestamp (ms) << 12 | contador del último ID emitido.
+     */
+    private final AtomicLong lastTimestampAndCounter = new AtomicLong();
+
+    public UuidV7Generator() {
+        this(Clock.systemUTC());
+    }
+
+    UuidV7Generator(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public UUID newId() {
+        long next = nextTimestampAndCounter(clock.millis());
+
+        long timestamp = next >>> COUNTER_BITS;
+        long counter = next & COUNTER_MASK;
+        long mostSignificant = (timestamp << 16) | (0x7L << 12) | counter;
+        long leastSignificant = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    private long nextTimestampAndCounter(long now) {
+        while (true) {
+            long previous = lastTimestampAndCounter.get();
+            long next = now > (previous >>> COUNTER_BITS)
+                    ? (now << COUNTER_BITS) | RANDOM.nextInt(COUNTER_SEED_BOUND)
+                    : previous + 1;
+            if (lastTimestampAndCounter.compareAndSet(previous, next)) {
+                return next;
+            }
+        }
+    }
+}
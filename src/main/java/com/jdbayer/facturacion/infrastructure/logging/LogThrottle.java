@@ -0,0 +1,46 @@
+package com.jdbayer.facturacion.infrastructure.logging;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limita cuántas líneas de log por segundo genera un tipo de error.
+ *
+ * Los errores de cliente esperados (credenciales inválidas, 404, 429) pueden
+ * llegar por miles bajo un ataque; se registran los primeros de cada segundo
+ * y el resto solo se cuenta. El conteo de omitidos se puede informar en la
+ * siguiente línea registrada.
+ *
+ * Lo usan GlobalExceptionHandler y {@link RateLimitingTurboFilter}.
+ *
+ * Es aproximado (sin locks): en el cambio de segundo puede dejar pasar
+ * alguna línea de más.
+ */
+public final class LogThrottle {
+
+    private final int permitsPerSecond;
+    private final AtomicLong currentSecond = new AtomicLong();
+    private final AtomicInteger permitsUsed = new AtomicInteger();
+    private final AtomicLong suppressed = new AtomicLong();
+
+    public LogThrottle(int permitsPerSecond) {
+        this.permitsPerSecond = permitsPerSecond;
+    }
+
+    /**
+     * @return cantidad de líneas omitidas desde la última registrada (0 o más)
+     *         si se debe registrar, o -1 si esta línea debe omitirse
+     */
+    public long tryAcquire() {
+        long now = System.currentTimeMillis() / 1000;
+        long second = currentSecond.get();
+        if (now != second && currentSecond.compareAndSet(second, now)) {
+            permitsUsed.set(0);
+        }
+        if (permitsUsed.incrementAndGet() > permitsPerSecond) {
+            suppressed.incrementAndGet();
+            return -1;
+        }
+        return suppressed.getAndSet(0);
+    }
+}
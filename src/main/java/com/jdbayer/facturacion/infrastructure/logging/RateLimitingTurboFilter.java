@@ -0,0 +1,82 @@
+package com.jdbayer.facturacion.infrastructure.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TurboFilter de Logback que muestrea y limita los eventos de un grupo de loggers.
+ *
+ * Se evalúa antes de crear el evento, así un evento descartado no cuesta
+ * formateo ni encolado. Se configura en logback-spring.xml, una instancia
+ * por grupo de loggers:
+ * - loggerPrefix: loggers afectados (por prefijo de nombre)
+ * - maxLevel: nivel máximo afectado; los eventos más graves pasan siempre
+ * - sampleEvery: deja pasar 1 de cada N eventos (1 = todos)
+ * - permitsPerSecond: máximo de eventos por segundo por logger (0 = sin límite)
+ *
+ * Ejemplo:
+ * <pre>
+ * &lt;turboFilter class="com.jdbayer.facturacion.infrastructure.logging.RateLimitingTurboFilter"&gt;
+ *     &lt;loggerPrefix&gt;com.jdbayer.facturacion.infrastructure.security&lt;/loggerPrefix&gt;
+ *     &lt;maxLevel&gt;WARN&lt;/maxLevel&gt;
+ *     &lt;permitsPerSecond&gt;20&lt;/permitsPerSecond&gt;
+ * &lt;/turboFilter&gt;
+ * </pre>
+ */
+public class RateLimitingTurboFilter extends TurboFilter {
+
+    private String loggerPrefix = "";
+    private Level maxLevel = Level.WARN;
+    private int sampleEvery = 1;
+    private int permitsPerSecond;
+
+    private final AtomicLong sampleCounter = new AtomicLong();
+    private final Map<String, LogThrottle> throttles = new ConcurrentHashMap<>();
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // format == null: es una consulta de nivel (isDebugEnabled), no un evento
+        if (!isStarted() || format == null || level == null) {
+            return FilterReply.NEUTRAL;
+        }
+        if (level.toInt() > maxLevel.toInt() || !logger.getName().startsWith(loggerPrefix)) {
+            return FilterReply.NEUTRAL;
+        }
+        // Solo cuentan los eventos que el nivel del logger dejaría pasar
+        if (!level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+
+        if (sampleEvery > 1 && sampleCounter.incrementAndGet() % sampleEvery != 0) {
+            return FilterReply.DENY;
+        }
+        if (permitsPerSecond > 0
+                && throttles.computeIfAbsent(logger.getName(), name -> new LogThrottle(permitsPerSecond)).tryAcquire() < 0) {
+            return FilterReply.DENY;
+        }
+        return FilterReply.NEUTRAL;
+    }
+
+    public void setLoggerPrefix(String loggerPrefix) {
+        this.loggerPrefix = loggerPrefix;
+    }
+
+    public void setMaxLevel(String maxLevel) {
+        this.maxLevel = Level.toLevel(maxLevel, Level.WARN);
+    }
+
+    public void setSampleEvery(int sampleEvery) {
+        this.sampleEvery = Math.max(1, sampleEvery);
+    }
+
+    public void setPermitsPerSecond(int permitsPerSecond) {
+        this.permitsPerSecond = Math.max(0, permitsPerSecond);
+    }
+}
@@ -0,0 +1,71 @@
+package com.jdbayer.facturacion.infrastructure.observability;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Exportador de spans en memoria, para tests y diagnóstico local.
+ *
+ * Guarda los últimos maxSpans spans terminados; los más antiguos se descartan.
+ * Se activa con tracing.in-memory-exporter.enabled=true (ver {@link TracingConfig})
+ * y convive con el exportador OTLP.
+ */
+public class InMemorySpanExporter implements SpanExporter {
+
+    private final int maxSpans;
+    private final ConcurrentLinkedDeque<SpanData> spans = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private volatile boolean stopped;
+
+    public InMemorySpanExporter(int maxSpans) {
+        this.maxSpans = maxSpans;
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> batch) {
+        if (stopped) {
+            return CompletableResultCode.ofFailure();
+        }
+        for (SpanData span : batch) {
+            spans.addLast(span);
+            if (size.incrementAndGet() > maxSpans && spans.pollFirst() != null) {
+                size.decrementAndGet();
+            }
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    /**
+     * @return copia de los spans terminados, del más antiguo al más reciente
+     */
+    public List<SpanData> getFinishedSpans() {
+        return new ArrayList<>(spans);
+    }
+
+    /**
+     * Descarta los spans guardados.
+     */
+    public void reset() {
+        spans.clear();
+        size.set(0);
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        stopped = true;
+        reset();
+        return CompletableResultCode.ofSuccess();
+    }
+}
@@ -0,0 +1,114 @@
+package com.jdbayer.facturacion.infrastructure.observability;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Observa los casos de uso y los repositorios R2DBC: un timer y un span por invocación.
+ *
+ * Envuelve cada bean en un proxy de su interfaz que inicia la observación al
+ * suscribirse al Mono/Flux devuelto (no al invocar el método, que solo arma
+ * el pipeline) y la detiene al completar, fallar o cancelar:
+ * - usecase.execution{usecase, method, outcome}: cada *UseCase (application.usecase)
+ * - r2dbc.repository.query{repository, method, outcome}: cada R2dbc*Repository
+ *
+ * El span de un caso de uso es padre de los spans de sus repositorios, y
+ * estos de las sentencias R2DBC. Los histogramas de percentiles se activan en
+ * application.yaml (management.metrics.distribution). La capa de aplicación
+ * y los repositorios no dependen de Micrometer.
+ *
+ * Los métodos que no devuelven Mono ni Flux se invocan sin observar.
+ */
+@Component
+public class ReactiveObservationPostProcessor implements BeanPostProcessor {
+
+    private static final String USE_CASE_PACKAGE = "com.jdbayer.facturacion.application.usecase";
+    private static final String REPOSITORY_PACKAGE = "com.jdbayer.facturacion.infrastructure.persistence.repository";
+
+    private final ObjectProvider<ObservationRegistry> observationRegistry;
+
+    /**
+     * El registry se resuelve en diferido: los BeanPostProcessor se crean
+     * antes que el resto de los beans.
+     */
+    public ReactiveObservationPostProcessor(ObjectProvider<ObservationRegistry> observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        for (Class<?> type : ClassUtils.getAllInterfaces(bean)) {
+            String packageName = type.getPackageName();
+            String name = type.getSimpleName();
+            if (packageName.equals(USE_CASE_PACKAGE) && name.endsWith("UseCase")) {
+                return proxy(bean, type, "usecase.execution", "usecase");
+            }
+            if (packageName.equals(REPOSITORY_PACKAGE) && name.startsWith("R2dbc")) {
+                return proxy(bean, type, "r2dbc.repository.query", "repository");
+            }
+        }
+        return bean;
+    }
+
+    private Object proxy(Object target, Class<?> type, String observationName, String typeTag) {
+        String typeName = type.getSimpleName();
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return invokeObjectMethod(proxy, target, method, args);
+            }
+            Object result = invoke(target, method, args);
+            if (result instanceof Mono<?> mono) {
+                return observe(mono, observationName, typeTag, typeName, method);
+            }
+            if (result instanceof Flux<?> flux) {
+                return observe(flux, observationName, typeTag, typeName, method);
+            }
+            return result;
+        };
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private <T> Mono<T> observe(Mono<T> mono, String observationName, String typeTag, String typeName, Method method) {
+        return ReactiveObservations.observe(
+                () -> observation(observationName, typeTag, typeName, method), observation -> mono);
+    }
+
+    private <T> Flux<T> observe(Flux<T> flux, String observationName, String typeTag, String typeName, Method method) {
+        return ReactiveObservations.observeMany(
+                () -> observation(observationName, typeTag, typeName, method), observation -> flux);
+    }
+
+    private Observation observation(String observationName, String typeTag, String typeName, Method method) {
+        return Observation.createNotStarted(observationName, observationRegistry.getObject())
+                .contextualName(typeName + "." + method.getName())
+                .lowCardinalityKeyValue(typeTag, typeName)
+                .lowCardinalityKeyValue("method", method.getName());
+    }
+
+    private static Object invokeObjectMethod(Object proxy, Object target, Method method, Object[] args) throws Throwable {
+        return switch (method.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            default -> invoke(target, method, args);
+        };
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
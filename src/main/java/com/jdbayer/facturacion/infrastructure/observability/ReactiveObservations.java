@@ -0,0 +1,73 @@
+package com.jdbayer.facturacion.infrastructure.observability;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Observaciones (timer + span) sobre secuencias de Reactor.
+ *
+ * La observación se crea en cada suscripción con la observación actual del
+ * contexto de Reactor como padre, y se publica en el contexto para que las
+ * operaciones internas (repositorios, consultas R2DBC) cuelguen de ella.
+ *
+ * Se detiene al completar, fallar o cancelar, con la clave "outcome"
+ * (success, error, cancelled). El timer lo genera el handler de métricas de
+ * Micrometer con el nombre y las claves de baja cardinalidad de la observación.
+ */
+public final class ReactiveObservations {
+
+    private ReactiveObservations() {
+    }
+
+    /**
+     * @param observations Crea la observación (sin iniciar) para cada suscripción
+     * @param source       Secuencia a observar; recibe la observación para agregar claves
+     */
+    public static <T> Mono<T> observe(Supplier<Observation> observations, Function<Observation, Mono<T>> source) {
+        return Mono.deferContextual(context -> {
+            Observation observation = start(observations, context);
+            return source.apply(observation)
+                    .doOnSuccess(value -> stop(observation, "success"))
+                    .doOnError(error -> {
+                        observation.error(error);
+                        stop(observation, "error");
+                    })
+                    .doOnCancel(() -> stop(observation, "cancelled"))
+                    .contextWrite(ctx -> ctx.put(ObservationThreadLocalAccessor.KEY, observation));
+        });
+    }
+
+    /**
+     * Variante para Flux: se detiene al completar la secuencia completa.
+     */
+    public static <T> Flux<T> observeMany(Supplier<Observation> observations, Function<Observation, Flux<T>> source) {
+        return Flux.deferContextual(context -> {
+            Observation observation = start(observations, context);
+            return source.apply(observation)
+                    .doOnComplete(() -> stop(observation, "success"))
+                    .doOnError(error -> {
+                        observation.error(error);
+                        stop(observation, "error");
+                    })
+                    .doOnCancel(() -> stop(observation, "cancelled"))
+                    .contextWrite(ctx -> ctx.put(ObservationThreadLocalAccessor.KEY, observation));
+        });
+    }
+
+    private static Observation start(Supplier<Observation> observations, ContextView context) {
+        Observation parent = context.getOrDefault(ObservationThreadLocalAccessor.KEY, null);
+        return observations.get()
+                .parentObservation(parent)
+                .start();
+    }
+
+    private static void stop(Observation observation, String outcome) {
+        observation.lowCardinalityKeyValue("outcome", outcome).stop();
+    }
+}
@@ -0,0 +1,32 @@
+package com.jdbayer.facturacion.infrastructure.observability;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración de tracing.
+ *
+ * Spring Boot arma el pipeline de OpenTelemetry (bridge de Micrometer Tracing,
+ * muestreo y exportador OTLP) a partir de management.tracing y
+ * management.opentelemetry en application.yaml. Cualquier bean SpanExporter
+ * se agrega como exportador adicional; aquí se registra el de memoria.
+ *
+ * Spans de una petición:
+ * - http.server.requests (Spring WebFlux)
+ * - security.blacklist.check (JwtAuthenticationFilter)
+ * - usecase.execution y r2dbc.repository.query ({@link ReactiveObservationPostProcessor})
+ * - r2dbc.pool.acquire (ObservedConnectionFactory) y r2dbc.query (r2dbc-proxy)
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "tracing.in-memory-exporter.enabled", havingValue = "true")
+    public InMemorySpanExporter inMemorySpanExporter(
+            @Value("${tracing.in-memory-exporter.max-spans:10000}") int maxSpans
+    ) {
+        return new InMemorySpanExporter(maxSpans);
+    }
+}
@@ -0,0 +1,51 @@
+package com.jdbayer.facturacion.infrastructure.persistence;
+
+import com.jdbayer.facturacion.infrastructure.observability.ReactiveObservations;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import io.r2dbc.spi.Wrapped;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.ObjectProvider;
+import reactor.core.publisher.Mono;
+
+/**
+ * ConnectionFactory que observa la obtención de conexiones del pool.
+ *
+ * Cada create() queda en una observación r2dbc.pool.acquire (timer + span):
+ * en una traza lenta se distingue el tiempo esperando una conexión libre del
+ * tiempo de las sentencias, que observa r2dbc-proxy.
+ *
+ * Implementa Wrapped para que {@link PostgresConnections#unwrap(ConnectionFactory)}
+ * y las métricas del pool sigan llegando al factory original.
+ */
+public class ObservedConnectionFactory implements ConnectionFactory, Wrapped<ConnectionFactory> {
+
+    private final ConnectionFactory delegate;
+    private final ObjectProvider<ObservationRegistry> observationRegistry;
+
+    public ObservedConnectionFactory(ConnectionFactory delegate, ObjectProvider<ObservationRegistry> observationRegistry) {
+        this.delegate = delegate;
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    public Publisher<? extends Connection> create() {
+        return ReactiveObservations.observe(
+                () -> Observation.createNotStarted("r2dbc.pool.acquire", observationRegistry.getObject())
+                        .contextualName("connection acquire"),
+                observation -> Mono.<Connection>from(delegate.create()));
+    }
+
+    @Override
+    public ConnectionFactoryMetadata getMetadata() {
+        return delegate.getMetadata();
+    }
+
+    @Override
+    public ConnectionFactory unwrap() {
+        return delegate;
+    }
+}
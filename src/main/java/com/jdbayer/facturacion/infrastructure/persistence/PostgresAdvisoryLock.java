@@ -0,0 +1,68 @@
+package com.jdbayer.facturacion.infrastructure.persistence;
+
+import io.r2dbc.postgresql.PostgresqlConnection;
+import io.r2dbc.postgresql.PostgresqlConnectionFactory;
+import io.r2dbc.spi.ConnectionFactory;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+
+/**
+ * Advisory lock de sesión de PostgreSQL para coordinar tareas entre nodos.
+ *
+ * El lock se toma con pg_try_advisory_lock sobre una conexión dedicada (fuera
+ * del pool) que vive mientras dura la tarea. Al cerrar la conexión PostgreSQL
+ * libera el lock, también si el nodo muere a mitad de la tarea.
+ *
+ * Si la BD no es PostgreSQL, la tarea se ejecuta sin coordinación.
+ */
+@Slf4j
+public final class PostgresAdvisoryLock {
+
+    private final Optional<PostgresqlConnectionFactory> postgres;
+    private final String name;
+
+    /**
+     * @param connectionFactory ConnectionFactory configurado (normalmente un ConnectionPool)
+     * @param name              Nombre del lock; se convierte a clave con hashtext()
+     */
+    public PostgresAdvisoryLock(ConnectionFactory connectionFactory, String name) {
+        this.postgres = PostgresConnections.unwrap(connectionFactory);
+        this.name = name;
+    }
+
+    /**
+     * Ejecuta la tarea solo si este nodo obtiene el lock.
+     *
+     * @param work Tarea a ejecutar mientras se tiene el lock
+     * @return Mono con el resultado de la tarea, vacío si otro nodo tiene el lock
+     */
+    public <T> Mono<T> tryRun(Mono<T> work) {
+        if (postgres.isEmpty()) {
+            return work;
+        }
+
+        return Mono.usingWhen(
+                postgres.get().create(),
+                connection -> tryLock(connection)
+                        .flatMap(acquired -> {
+                            if (!acquired) {
+                                log.debug("Lock {} en uso por otro nodo", name);
+                                return Mono.empty();
+                            }
+                            return work;
+                        }),
+                PostgresqlConnection::close
+        );
+    }
+
+    private Mono<Boolean> tryLock(PostgresqlConnection connection) {
+        return connection.createStatement("SELECT pg_try_advisory_lock(hashtext($1))")
+                .bind("$1", name)
+                .execute()
+                .flatMap(result -> result.map((row, metadata) -> row.get(0, Boolean.class)))
+                .next()
+                .defaultIfEmpty(false);
+    }
+}
@@ -0,0 +1,41 @@
+package com.jdbayer.facturacion.infrastructure.persistence;
+
+import io.r2dbc.postgresql.PostgresqlConnectionFactory;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Wrapped;
+
+import java.util.Optional;
+
+/**
+ * Utilidades para obtener conexiones PostgreSQL nativas.
+ *
+ * Algunas funciones (LISTEN/NOTIFY, advisory locks de sesión) necesitan una
+ * conexión propia y de larga duración que no debe volver al pool con estado de
+ * sesión pendiente. Estas utilidades desenvuelven el ConnectionFactory del
+ * contexto (pool, proxies) hasta llegar al PostgresqlConnectionFactory.
+ */
+public final class PostgresConnections {
+
+    private PostgresConnections() {
+    }
+
+    /**
+     * Retorna el PostgresqlConnectionFactory subyacente, si existe.
+     *
+     * @param connectionFactory ConnectionFactory configurado (normalmente un ConnectionPool)
+     * @return Optional con el factory nativo, vacío si la BD no es PostgreSQL
+     */
+    public static Optional<PostgresqlConnectionFactory> unwrap(ConnectionFactory connectionFactory) {
+        Object current = connectionFactory;
+        while (!(current instanceof PostgresqlConnectionFactory) && current instanceof Wrapped<?> wrapped) {
+            Object inner = wrapped.unwrap();
+            if (inner == null || inner == current) {
+                break;
+            }
+            current = inner;
+        }
+        return current instanceof PostgresqlConnectionFactory postgres
+                ? Optional.of(postgres)
+                : Optional.empty();
+    }
+}
@@ -4,7 +4,10 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import com.jdbayer.facturacion.infrastructure.security.jwt.TokenDigest;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.domain.Persistable;
 import org.springframework.data.relational.core.mapping.Column;
 import org.springframework.data.relational.core.mapping.Table;
 
@@ -20,23 +23,27 @@ import java.util.UUID;
  * para prevenir su uso hasta que expire naturalmente.
  *
  * Migrado de Redis a PostgreSQL para simplificar la infraestructura.
+ *
+ * La clave primaria es el digest SHA-256 del token (32 bytes), no el JWT
+ * completo. Implementa Persistable<byte[]> porque el ID lo asigna la
+ * aplicación y save() debe hacer INSERT.
  */
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name = "blacklisted_tokens", schema = "security")
-public class BlacklistedTokenEntity implements Serializable {
+public class BlacklistedTokenEntity implements Serializable, Persistable<byte[]> {
 
     @Serial
     private static final long serialVersionUID = 1L;
 
     /**
-     * ID único del token (el token JWT mismo).
+     * ID único del token: SHA-256 del token JWT.
      */
     @Id
-    @Column("token")
-    private String token;
+    @Column("token_hash")
+    private byte[] tokenHash;
 
     /**
      * ID del usuario que hizo logout.
@@ -76,6 +83,12 @@ public class BlacklistedTokenEntity implements Serializable {
     @Column("expires_at")
     private Instant expiresAt;
 
+    /**
+     * true solo para entradas recién creadas (INSERT).
+     */
+    @Transient
+    private boolean newEntry;
+
     /**
      * Constructor para crear un nuevo token blacklisted.
      */
@@ -87,12 +100,44 @@ public class BlacklistedTokenEntity implements Serializable {
             String ipAddress,
             Instant expiresAt
     ) {
-        this.token = token;
+        this(TokenDigest.of(token), userId, email, reason, ipAddress, expiresAt);
+    }
+
+    /**
+     * Constructor para crear un nuevo token blacklisted a partir de su digest.
+     */
+    public BlacklistedTokenEntity(
+            TokenDigest digest,
+            UUID userId,
+            String email,
+            String reason,
+            String ipAddress,
+            Instant expiresAt
+    ) {
+        this.tokenHash = digest.bytes();
         this.userId = userId;
         this.email = email;
         this.blacklistedAt = Instant.now();
         this.reason = reason;
         this.ipAddress = ipAddress;
         this.expiresAt = expiresAt;
+        this.newEntry = true;
+    }
+
+    /**
+     * Retorna el ID de la entidad.
+     * Requerido por Persistable.
+     */
+    @Override
+    public byte[] getId() {
+        return tokenHash;
+    }
+
+    /**
+     * Indica si la entidad es nueva (INSERT) o existente (UPDATE).
+     */
+    @Override
+    public boolean isNew() {
+        return newEntry;
     }
 }
\ No newline at end of file
@@ -5,8 +5,11 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.domain.Persistable;
 import org.springframework.data.relational.core.mapping.Column;
 import org.springframework.data.relational.core.mapping.Table;
+import com.jdbayer.facturacion.infrastructure.security.jwt.TokenDigest;
 
 import java.io.Serial;
 import java.io.Serializable;
@@ -20,22 +23,34 @@ import java.util.UUID;
  * volver a autenticarse con usuario/contraseña.
  *
  * Migrado de Redis a PostgreSQL para simplificar la infraestructura.
+ *
+ * La clave primaria es el digest SHA-256 del token (32 bytes), no el JWT
+ * completo: la BD no guarda tokens utilizables y el índice es compacto.
+ *
+ * Implementa Persistable<byte[]> porque el ID lo asigna la aplicación:
+ * sin esto, save() interpretaría cualquier token nuevo como un UPDATE.
  */
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name = "refresh_tokens", schema = "security")
-public class RefreshTokenEntity implements Serializable {
+public class RefreshTokenEntity implements Serializable, Persistable<byte[]> {
 
     @Serial
     private static final long serialVersionUID = 1L;
 
     /**
-     * ID único del refresh token (el token JWT mismo).
+     * ID único del refresh token: SHA-256 del token JWT.
      */
     @Id
-    @Column("token")
+    @Column("token_hash")
+    private byte[] tokenHash;
+
+    /**
+     * Token JWT. Solo está disponible en tokens recién creados; no se persiste.
+     */
+    @Transient
     private String token;
 
     /**
@@ -86,6 +101,12 @@ public class RefreshTokenEntity implements Serializable {
     @Column("last_used_at")
     private Instant lastUsedAt;
 
+    /**
+     * true solo para tokens recién creados (INSERT); los leídos de la BD quedan en false.
+     */
+    @Transient
+    private boolean newToken;
+
     /**
      * Constructor para crear un nuevo refresh token.
      */
@@ -98,6 +119,7 @@ public class RefreshTokenEntity implements Serializable {
             String userAgent
     ) {
         this.token = token;
+        this.tokenHash = TokenDigest.of(token).bytes();
         this.userId = userId;
         this.email = email;
         this.createdAt = Instant.now();
@@ -105,6 +127,24 @@ public class RefreshTokenEntity implements Serializable {
         this.ipAddress = ipAddress;
         this.userAgent = userAgent;
         this.used = false;
+        this.newToken = true;
+    }
+
+    /**
+     * Retorna el ID de la entidad.
+     * Requerido por Persistable.
+     */
+    @Override
+    public byte[] getId() {
+        return tokenHash;
+    }
+
+    /**
+     * Indica si la entidad es nueva (INSERT) o existente (UPDATE).
+     */
+    @Override
+    public boolean isNew() {
+        return newToken;
     }
 
     /**
@@ -5,6 +5,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.ReadOnlyProperty;
 import org.springframework.data.annotation.Transient;
 import org.springframework.data.domain.Persistable;
 import org.springframework.data.relational.core.mapping.Column;
@@ -56,6 +57,15 @@ public class UserEntity implements Serializable, Persistable<UUID> {
     @Column("updated_at")
     private Instant updatedAt;
 
+    /**
+     * Época de tokens. Solo lectura: únicamente la modifica
+     * {@link com.jdbayer.facturacion.infrastructure.persistence.repository.R2dbcUserRepository#incrementTokenEpoch(UUID)},
+     * así que guardar un usuario leído antes de una revocación no la deshace.
+     */
+    @ReadOnlyProperty
+    @Column("token_epoch")
+    private Long tokenEpoch;
+
     /**
      * Retorna el ID de la entidad.
      * Requerido por Persistable.
@@ -76,6 +86,9 @@ public class UserEntity implements Serializable, Persistable<UUID> {
      * - Al crear: User.create() establece createdAt = updatedAt = Instant.now()
      * - Al actualizar: user.changeName(), changeEmail(), etc. actualizan solo updatedAt
      *
+     * UserRepositoryImpl no depende de esta heurística: inserta o actualiza
+     * explícitamente según User.isNew() y los campos modificados.
+     *
      * @return true si es nueva, false si ya existe en BD
      */
     @Override
@@ -32,6 +32,7 @@ public interface UserMapper {
     @Mapping(target = "lastName", source = "lastName", qualifiedByName = "stringToName")
     @Mapping(target = "email", source = "email", qualifiedByName = "stringToEmail")
     @Mapping(target = "passwordHash", source = "password", qualifiedByName = "stringToPasswordHash")
+    @Mapping(target = "tokenEpoch", source = "tokenEpoch", defaultValue = "0")
     User toDomain(UserEntity entity);
 
     /**
@@ -49,11 +50,12 @@ public interface UserMapper {
     // ============= MAPPERS DE VALUE OBJECTS =============
 
     /**
-     * Convierte String a Name (Value Object)
+     * Convierte String a Name (Value Object).
+     * El valor viene de la BD, ya normalizado: no se revalida.
      */
     @Named("stringToName")
     default Name stringToName(String value) {
-        return value != null ? new Name(value) : null;
+        return value != null ? Name.rehydrate(value) : null;
     }
 
     /**
@@ -65,11 +67,12 @@ public interface UserMapper {
     }
 
     /**
-     * Convierte String a Email (Value Object)
+     * Convierte String a Email (Value Object).
+     * El valor viene de la BD, ya normalizado: no se revalida.
      */
     @Named("stringToEmail")
     default Email stringToEmail(String value) {
-        return value != null ? new Email(value) : null;
+        return value != null ? Email.rehydrate(value) : null;
     }
 
     /**
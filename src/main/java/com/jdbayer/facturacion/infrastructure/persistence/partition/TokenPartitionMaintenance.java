@@ -0,0 +1,134 @@
+package com.jdbayer.facturacion.infrastructure.persistence.partition;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Mantenimiento de las particiones diarias de las tablas de tokens.
+ *
+ * security.refresh_tokens y security.blacklisted_tokens están particionadas
+ * por día de expires_at (migración V1.4.0). En cada ejecución, por tabla:
+ * 1. Crea las particiones faltantes desde hoy - retention-days hasta hoy + lookahead-days
+ * 2. Desvincula y elimina las particiones anteriores a hoy - retention-days
+ *
+ * Ambos rangos empiezan en el mismo día: una partición que se acaba de
+ * eliminar no se vuelve a crear en la siguiente ejecución. Así cada partición
+ * se desvincula una sola vez, cuando expira.
+ *
+ * La eliminación es DETACH + DROP: costo constante, sin tuplas muertas ni
+ * vacuum, sin importar cuántas filas tenga la partición. El DETACH toma un
+ * lock ACCESS EXCLUSIVE breve (con lock_timeout de 2s); no se usa DETACH
+ * CONCURRENTLY porque PostgreSQL no lo permite con partición DEFAULT.
+ *
+ * "Hoy" es el día UTC de la BD, (now() AT TIME ZONE 'UTC')::date: expires_at
+ * es un TIMESTAMP escrito desde Instant en UTC. current_date sigue la
+ * TimeZone de la sesión; con una zona adelantada a UTC se eliminarían
+ * particiones con tokens aún vigentes.
+ *
+ * Se invoca desde TokenCleanupEngine, bajo su advisory lock.
+ *
+ * Métricas:
+ * - security.token-partitions.created: particiones creadas, por tabla
+ * - security.token-partitions.dropped: particiones eliminadas, por tabla
+ */
+@Component
+@Slf4j
+public class TokenPartitionMaintenance {
+
+    private static final List<String> PARTITIONED_TABLES = List.of("refresh_tokens", "blacklisted_tokens");
+
+    /** Día actual en UTC, la misma zona en la que se escribe expires_at. */
+    private static final String UTC_TODAY = "(now() AT TIME ZONE 'UTC')::date";
+
+    private final DatabaseClient databaseClient;
+    private final TokenPartitionProperties properties;
+    private final Map<String, Counter> createdCounters;
+    private final Map<String, Counter> droppedCounters;
+
+    public TokenPartitionMaintenance(
+            DatabaseClient databaseClient,
+            TokenPartitionProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.databaseClient = databaseClient;
+        this.properties = properties;
+        this.createdCounters = counters(meterRegistry, "security.token-partitions.created",
+                "Particiones de tokens creadas");
+        this.droppedCounters = counters(meterRegistry, "security.token-partitions.dropped",
+                "Particiones de tokens expiradas eliminadas");
+    }
+
+    /**
+     * Ejecuta el mantenimiento de todas las tablas particionadas.
+     *
+     * Un error en una tabla no impide procesar la siguiente.
+     *
+     * @return Mono con el total de particiones eliminadas
+     */
+    public Mono<Integer> maintain() {
+        return Flux.fromIterable(PARTITIONED_TABLES)
+                .concatMap(table -> maintain(table)
+                        .onErrorResume(error -> {
+                            log.error("Error en mantenimiento de particiones de {}: {}", table, error.getMessage());
+                            return Mono.just(0);
+                        }))
+                .reduce(0, Integer::sum);
+    }
+
+    private Mono<Integer> maintain(String table) {
+        return ensurePartitions(table)
+                .then(dropExpiredPartitions(table));
+    }
+
+    private Mono<Integer> ensurePartitions(String table) {
+        return databaseClient.sql("SELECT security.ensure_token_partitions(:parent, "
+                        + UTC_TODAY + " - :retention, " + UTC_TODAY + " + :lookahead)")
+                .bind("parent", table)
+                .bind("retention", properties.getRetentionDays())
+                .bind("lookahead", properties.getLookaheadDays())
+                .map(row -> row.get(0, Integer.class))
+                .one()
+                .defaultIfEmpty(0)
+                .doOnNext(created -> {
+                    if (created > 0) {
+                        createdCounters.get(table).increment(created);
+                        log.info("Creadas {} particiones nuevas para {}", created, table);
+                    }
+                });
+    }
+
+    private Mono<Integer> dropExpiredPartitions(String table) {
+        return databaseClient.sql("SELECT security.drop_expired_token_partitions(:parent, " + UTC_TODAY + " - :retention)")
+                .bind("parent", table)
+                .bind("retention", properties.getRetentionDays())
+                .map(row -> row.get(0, Integer.class))
+                .one()
+                .defaultIfEmpty(0)
+                .doOnNext(dropped -> {
+                    if (dropped > 0) {
+                        droppedCounters.get(table).increment(dropped);
+                        log.info("Eliminadas {} particiones expiradas de {}", dropped, table);
+                    }
+                });
+    }
+
+    private static Map<String, Counter> counters(MeterRegistry meterRegistry, String name, String description) {
+        return PARTITIONED_TABLES.stream()
+                .collect(Collectors.toUnmodifiableMap(
+                        table -> table,
+                        table -> Counter.builder(name)
+                                .description(description)
+                                .tag("table", table)
+                                .register(meterRegistry)
+                ));
+    }
+}
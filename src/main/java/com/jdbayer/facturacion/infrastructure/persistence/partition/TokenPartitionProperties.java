@@ -0,0 +1,23 @@
+package com.jdbayer.facturacion.infrastructure.persistence.partition;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Component
+public class TokenPartitionProperties {
+
+    /**
+     * Días de particiones futuras a mantener creadas.
+     * Debe cubrir la vida del refresh token (jwt.refresh-expiration) más un margen.
+     */
+    @Value("${security.token-partitions.lookahead-days:14}")
+    private int lookaheadDays;
+
+    /**
+     * Días que se conservan las particiones ya expiradas antes de eliminarlas.
+     */
+    @Value("${security.token-partitions.retention-days:0}")
+    private int retentionDays;
+}
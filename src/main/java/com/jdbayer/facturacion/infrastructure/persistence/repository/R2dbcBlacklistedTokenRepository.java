@@ -1,6 +1,7 @@
 package com.jdbayer.facturacion.infrastructure.persistence.repository;
 
 import com.jdbayer.facturacion.infrastructure.persistence.entity.BlacklistedTokenEntity;
+import com.jdbayer.facturacion.infrastructure.security.jwt.TokenDigest;
 import org.springframework.data.r2dbc.repository.Modifying;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
@@ -8,6 +9,7 @@ import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.UUID;
 
@@ -15,9 +17,21 @@ import java.util.UUID;
  * Repositorio Spring Data R2DBC para BlacklistedToken.
  *
  * Maneja la blacklist de tokens invalidados (logout) usando PostgreSQL.
+ *
+ * La clave es el digest SHA-256 del token (bytea). Los métodos que reciben el
+ * token completo calculan el digest y delegan en la variante por hash.
+ *
+ * Igual que en R2dbcRefreshTokenRepository, las búsquedas por token filtran
+ * también por expires_at (el exp del JWT), para que PostgreSQL descarte las
+ * particiones diarias que no pueden contener el token.
  */
 @Repository
-public interface R2dbcBlacklistedTokenRepository extends R2dbcRepository<BlacklistedTokenEntity, String> {
+public interface R2dbcBlacklistedTokenRepository extends R2dbcRepository<BlacklistedTokenEntity, byte[]> {
+
+    /**
+     * Margen sobre el exp del JWT (ver R2dbcRefreshTokenRepository#EXPIRES_AT_TOLERANCE).
+     */
+    Duration EXPIRES_AT_TOLERANCE = Duration.ofMinutes(1);
 
     /**
      * Busca todos los tokens blacklisted de un usuario.
@@ -48,10 +62,27 @@ public interface R2dbcBlacklistedTokenRepository extends R2dbcRepository<Blackli
      * Este método es crítico para validación de tokens.
      *
      * @param token Token JWT a verificar
+     * @param expiresAt Expiración del token (claim exp)
      * @return Mono<Boolean> - true si el token está blacklisted
      */
-    @Query("SELECT EXISTS(SELECT 1 FROM security.blacklisted_tokens WHERE token = :token)")
-    Mono<Boolean> existsByToken(String token);
+    default Mono<Boolean> existsByToken(String token, Instant expiresAt) {
+        return existsByTokenHash(TokenDigest.of(token).bytes(), expiresAt, expiresAt.plus(EXPIRES_AT_TOLERANCE));
+    }
+
+    @Query("SELECT EXISTS(SELECT 1 FROM security.blacklisted_tokens WHERE token_hash = :tokenHash " +
+            "AND expires_at >= :expiresFrom AND expires_at < :expiresTo)")
+    Mono<Boolean> existsByTokenHash(byte[] tokenHash, Instant expiresFrom, Instant expiresTo);
+
+    /**
+     * Busca los tokens blacklisted que aún no han expirado.
+     *
+     * Se usa para cargar el índice en memoria de la blacklist al arrancar.
+     *
+     * @param now Fecha y hora actual
+     * @return Flux de tokens blacklisted vigentes
+     */
+    @Query("SELECT * FROM security.blacklisted_tokens WHERE expires_at > :now")
+    Flux<BlacklistedTokenEntity> findAllActive(Instant now);
 
     /**
      * Elimina tokens expirados de la blacklist.
@@ -65,6 +96,21 @@ public interface R2dbcBlacklistedTokenRepository extends R2dbcRepository<Blackli
     @Query("DELETE FROM security.blacklisted_tokens WHERE expires_at < :now")
     Mono<Integer> deleteExpiredTokens(Instant now);
 
+    /**
+     * Elimina un lote acotado de tokens expirados.
+     *
+     * Borrar por lotes mantiene cortas las transacciones y los locks; se
+     * repite hasta que el lote devuelve menos filas que el límite.
+     *
+     * @param now Fecha y hora actual
+     * @param limit Tamaño máximo del lote
+     * @return Mono con el número de tokens eliminados
+     */
+    @Modifying
+    @Query("DELETE FROM security.blacklisted_tokens WHERE (token_hash, expires_at) IN " +
+            "(SELECT token_hash, expires_at FROM security.blacklisted_tokens WHERE expires_at < :now LIMIT :limit)")
+    Mono<Integer> deleteExpiredBatch(Instant now, int limit);
+
     /**
      * Cuenta tokens blacklisted por un usuario.
      *
@@ -1,6 +1,7 @@
 package com.jdbayer.facturacion.infrastructure.persistence.repository;
 
 import com.jdbayer.facturacion.infrastructure.persistence.entity.RefreshTokenEntity;
+import com.jdbayer.facturacion.infrastructure.security.jwt.TokenDigest;
 import org.springframework.data.r2dbc.repository.Modifying;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
@@ -8,6 +9,7 @@ import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.UUID;
 
@@ -15,9 +17,62 @@ import java.util.UUID;
  * Repositorio Spring Data R2DBC para RefreshToken.
  *
  * Maneja los refresh tokens para renovación de sesión usando PostgreSQL.
+ *
+ * La clave es el digest SHA-256 del token (bytea). Los métodos que reciben el
+ * token completo calculan el digest y delegan en la variante por hash.
+ *
+ * La tabla está particionada por expires_at (V1.4.0), así que las búsquedas
+ * por token también filtran por expires_at, que se conoce por el claim exp:
+ * con solo token_hash PostgreSQL no puede descartar particiones y recorre el
+ * índice de cada partición diaria más la DEFAULT. Por eso no se usan
+ * findById/deleteById.
+ *
+ * expires_at se escribe igual al exp del JWT. Como exp forma parte del token
+ * firmado (y de su digest), un mismo token_hash siempre lleva el mismo
+ * expires_at, y la clave (token_hash, expires_at) garantiza que token_hash es
+ * único. Las filas anteriores guardaban la hora de creación + TTL, algo
+ * posterior al exp; la búsqueda usa [exp, exp + EXPIRES_AT_TOLERANCE) para
+ * encontrarlas también.
  */
 @Repository
-public interface R2dbcRefreshTokenRepository extends R2dbcRepository<RefreshTokenEntity, String> {
+public interface R2dbcRefreshTokenRepository extends R2dbcRepository<RefreshTokenEntity, byte[]> {
+
+    /**
+     * Margen sobre el exp del JWT para las filas escritas antes de guardar
+     * expires_at = exp. Abarca como mucho dos particiones diarias.
+     */
+    Duration EXPIRES_AT_TOLERANCE = Duration.ofMinutes(1);
+
+    /**
+     * Busca un refresh token a partir del token JWT completo.
+     *
+     * @param token Token JWT
+     * @param expiresAt Expiración del token (claim exp)
+     * @return Mono con el token encontrado
+     */
+    default Mono<RefreshTokenEntity> findByToken(String token, Instant expiresAt) {
+        return findByTokenHash(TokenDigest.of(token).bytes(), expiresAt, expiresAt.plus(EXPIRES_AT_TOLERANCE));
+    }
+
+    @Query("SELECT * FROM security.refresh_tokens WHERE token_hash = :tokenHash " +
+            "AND expires_at >= :expiresFrom AND expires_at < :expiresTo")
+    Mono<RefreshTokenEntity> findByTokenHash(byte[] tokenHash, Instant expiresFrom, Instant expiresTo);
+
+    /**
+     * Elimina un refresh token a partir del token JWT completo.
+     *
+     * @param token Token JWT
+     * @param expiresAt Expiración del token (claim exp)
+     * @return Mono con el número de filas eliminadas
+     */
+    default Mono<Integer> deleteByToken(String token, Instant expiresAt) {
+        return deleteByTokenHash(TokenDigest.of(token).bytes(), expiresAt, expiresAt.plus(EXPIRES_AT_TOLERANCE));
+    }
+
+    @Modifying
+    @Query("DELETE FROM security.refresh_tokens WHERE token_hash = :tokenHash " +
+            "AND expires_at >= :expiresFrom AND expires_at < :expiresTo")
+    Mono<Integer> deleteByTokenHash(byte[] tokenHash, Instant expiresFrom, Instant expiresTo);
 
     /**
      * Busca todos los refresh tokens de un usuario.
@@ -50,10 +105,13 @@ public interface R2dbcRefreshTokenRepository extends R2dbcRepository<RefreshToke
     /**
      * Cuenta cuántos refresh tokens activos tiene un usuario.
      *
+     * Los tokens ya usados se conservan hasta expirar para detectar su
+     * reutilización; no cuentan como sesión activa.
+     *
      * @param userId ID del usuario
      * @return Mono con el número de tokens activos
      */
-    @Query("SELECT COUNT(*) FROM security.refresh_tokens WHERE user_id = :userId AND expires_at > :now")
+    @Query("SELECT COUNT(*) FROM security.refresh_tokens WHERE user_id = :userId AND used = false AND expires_at > :now")
     Mono<Long> countActiveByUserId(UUID userId, Instant now);
 
     /**
@@ -68,24 +126,72 @@ public interface R2dbcRefreshTokenRepository extends R2dbcRepository<RefreshToke
     @Query("DELETE FROM security.refresh_tokens WHERE expires_at < :now")
     Mono<Integer> deleteExpiredTokens(Instant now);
 
+    /**
+     * Elimina un lote acotado de tokens expirados.
+     *
+     * Borrar por lotes mantiene cortas las transacciones y los locks; se
+     * repite hasta que el lote devuelve menos filas que el límite.
+     *
+     * @param now Fecha y hora actual
+     * @param limit Tamaño máximo del lote
+     * @return Mono con el número de tokens eliminados
+     */
+    @Modifying
+    @Query("DELETE FROM security.refresh_tokens WHERE (token_hash, expires_at) IN " +
+            "(SELECT token_hash, expires_at FROM security.refresh_tokens WHERE expires_at < :now LIMIT :limit)")
+    Mono<Integer> deleteExpiredBatch(Instant now, int limit);
+
     /**
      * Busca un token específico de un usuario.
      *
      * @param token Token a buscar
+     * @param expiresAt Expiración del token (claim exp)
      * @param userId ID del usuario
      * @return Mono con el token encontrado
      */
-    @Query("SELECT * FROM security.refresh_tokens WHERE token = :token AND user_id = :userId")
-    Mono<RefreshTokenEntity> findByTokenAndUserId(String token, UUID userId);
+    default Mono<RefreshTokenEntity> findByTokenAndUserId(String token, Instant expiresAt, UUID userId) {
+        return findByTokenHashAndUserId(TokenDigest.of(token).bytes(), expiresAt, expiresAt.plus(EXPIRES_AT_TOLERANCE), userId);
+    }
+
+    @Query("SELECT * FROM security.refresh_tokens WHERE token_hash = :tokenHash " +
+            "AND expires_at >= :expiresFrom AND expires_at < :expiresTo AND user_id = :userId")
+    Mono<RefreshTokenEntity> findByTokenHashAndUserId(byte[] tokenHash, Instant expiresFrom, Instant expiresTo, UUID userId);
 
     /**
      * Marca un token como usado.
      *
      * @param token Token a marcar
+     * @param expiresAt Expiración del token (claim exp)
      * @param lastUsedAt Fecha de último uso
      * @return Mono con el número de filas actualizadas
      */
+    default Mono<Integer> markAsUsed(String token, Instant expiresAt, Instant lastUsedAt) {
+        return markAsUsedByHash(TokenDigest.of(token).bytes(), expiresAt, expiresAt.plus(EXPIRES_AT_TOLERANCE), lastUsedAt);
+    }
+
     @Modifying
-    @Query("UPDATE security.refresh_tokens SET used = true, last_used_at = :lastUsedAt WHERE token = :token")
-    Mono<Integer> markAsUsed(String token, Instant lastUsedAt);
+    @Query("UPDATE security.refresh_tokens SET used = true, last_used_at = :lastUsedAt WHERE token_hash = :tokenHash " +
+            "AND expires_at >= :expiresFrom AND expires_at < :expiresTo")
+    Mono<Integer> markAsUsedByHash(byte[] tokenHash, Instant expiresFrom, Instant expiresTo, Instant lastUsedAt);
+
+    /**
+     * Consume un refresh token de forma atómica: lo marca como usado solo si
+     * existe, no fue usado y no expiró.
+     *
+     * Es una sola sentencia, así que de dos refresh concurrentes con el mismo
+     * token solo uno obtiene la fila; el otro recibe vacío.
+     *
+     * @param token Token a consumir
+     * @param expiresAt Expiración del token (claim exp)
+     * @param now Fecha y hora actual
+     * @return Mono con el token consumido, vacío si no existe, ya fue usado o expiró
+     */
+    default Mono<RefreshTokenEntity> consume(String token, Instant expiresAt, Instant now) {
+        return consumeByHash(TokenDigest.of(token).bytes(), expiresAt, expiresAt.plus(EXPIRES_AT_TOLERANCE), now);
+    }
+
+    @Query("UPDATE security.refresh_tokens SET used = true, last_used_at = :now " +
+            "WHERE token_hash = :tokenHash AND expires_at >= :expiresFrom AND expires_at < :expiresTo " +
+            "AND used = false AND expires_at > :now RETURNING *")
+    Mono<RefreshTokenEntity> consumeByHash(byte[] tokenHash, Instant expiresFrom, Instant expiresTo, Instant now);
 }
\ No newline at end of file
@@ -4,8 +4,10 @@ import com.jdbayer.facturacion.infrastructure.persistence.entity.UserEntity;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
 import java.util.UUID;
 
 @Repository
@@ -19,6 +21,15 @@ public interface  R2dbcUserRepository extends R2dbcRepository<UserEntity, UUID>
     @Query("SELECT * FROM security.users WHERE email = :email")
     Mono<UserEntity> findByEmail(String email);
 
+    /**
+     * Busca varios usuarios por ID en una sola consulta.
+     *
+     * @param ids IDs de los usuarios
+     * @return Flux<UserEntity> con los usuarios encontrados (sin orden garantizado)
+     */
+    @Query("SELECT * FROM security.users WHERE id = ANY(:ids)")
+    Flux<UserEntity> findAllByIds(UUID[] ids);
+
     /**
      * Verifica si existe un usuario con el email dado.
      *
@@ -46,4 +57,64 @@ public interface  R2dbcUserRepository extends R2dbcRepository<UserEntity, UUID>
      */
     @Query("SELECT COUNT(*) FROM security.users WHERE is_active = true")
     Mono<Long> countActiveUsers();
+
+    /**
+     * Inserta un usuario salvo que el email ya esté registrado.
+     *
+     * La unicidad la garantiza la restricción user_unique_email, sin una
+     * consulta previa ni carrera entre registros concurrentes.
+     *
+     * @return Mono<UUID> con el ID insertado, vacío si el email ya existe
+     */
+    @Query("INSERT INTO security.users (id, name, last_name, email, password, is_active, created_at, updated_at) " +
+            "VALUES (:id, :name, :lastName, :email, :password, :active, :createdAt, :updatedAt) " +
+            "ON CONFLICT ON CONSTRAINT user_unique_email DO NOTHING RETURNING id")
+    Mono<UUID> insertIfEmailAvailable(
+            UUID id,
+            String name,
+            String lastName,
+            String email,
+            String password,
+            boolean active,
+            Instant createdAt,
+            Instant updatedAt
+    );
+
+    /**
+     * Activa un usuario si está inactivo, en una sola sentencia.
+     *
+     * @param id ID del usuario
+     * @param updatedAt Fecha de modificación
+     * @return Mono<UUID> con el ID si cambió de estado, vacío si no existe o ya estaba activo
+     */
+    @Query("UPDATE security.users SET is_active = true, updated_at = :updatedAt WHERE id = :id AND is_active = false RETURNING id")
+    Mono<UUID> activate(UUID id, Instant updatedAt);
+
+    /**
+     * Desactiva un usuario si está activo, en una sola sentencia.
+     *
+     * @param id ID del usuario
+     * @param updatedAt Fecha de modificación
+     * @return Mono<UUID> con el ID si cambió de estado, vacío si no existe o ya estaba inactivo
+     */
+    @Query("UPDATE security.users SET is_active = false, updated_at = :updatedAt WHERE id = :id AND is_active = true RETURNING id")
+    Mono<UUID> deactivate(UUID id, Instant updatedAt);
+
+    /**
+     * Obtiene la época de tokens vigente de un usuario.
+     *
+     * @param id ID del usuario
+     * @return Mono<Long> con la época o vacío si el usuario no existe
+     */
+    @Query("SELECT token_epoch FROM security.users WHERE id = :id")
+    Mono<Long> findTokenEpochById(UUID id);
+
+    /**
+     * Incrementa la época de tokens, revocando todos los tokens emitidos antes.
+     *
+     * @param id ID del usuario
+     * @return Mono<Long> con la nueva época o vacío si el usuario no existe
+     */
+    @Query("UPDATE security.users SET token_epoch = token_epoch + 1 WHERE id = :id RETURNING token_epoch")
+    Mono<Long> incrementTokenEpoch(UUID id);
 }
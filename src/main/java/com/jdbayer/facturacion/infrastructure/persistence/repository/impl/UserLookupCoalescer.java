@@ -0,0 +1,217 @@
+package com.jdbayer.facturacion.infrastructure.persistence.repository.impl;
+
+import com.jdbayer.facturacion.domain.model.User;
+import com.jdbayer.facturacion.infrastructure.persistence.entity.UserEntity;
+import com.jdbayer.facturacion.infrastructure.persistence.mapper.UserMapper;
+import com.jdbayer.facturacion.infrastructure.observability.ReactiveObservations;
+import com.jdbayer.facturacion.infrastructure.persistence.repository.R2dbcUserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Agrupa búsquedas de usuarios por ID concurrentes en una sola consulta.
+ *
+ * Bajo carga, muchos requests buscan usuarios distintos en el mismo
+ * milisegundo y cada búsqueda ocuparía su propia conexión del pool. Este
+ * componente las acumula durante una ventana corta (persistence.user-lookup.max-wait)
+ * o hasta llenar el lote (persistence.user-lookup.batch-size) y ejecuta un único
+ * SELECT ... WHERE id = ANY(:ids). Cada resultado vuelve a quien lo pidió.
+ *
+ * - Un ID repetido en el mismo lote se consulta una vez, pero cada solicitante
+ *   recibe su propia instancia de User (es mutable)
+ * - Un error en la consulta se propaga a todas las búsquedas del lote
+ * - Las búsquedas pendientes están acotadas (persistence.user-lookup.max-pending):
+ *   con la BD lenta, las que exceden el límite fallan de inmediato con
+ *   {@link UserLookupUnavailableException} (503) en lugar de acumularse en memoria
+ *
+ * Encolar nunca bloquea ni reintenta: load() se invoca desde el event loop.
+ * Los Sinks de Reactor no admiten onNext concurrentes, así que las búsquedas
+ * pasan primero por una cola MPSC propia y las emite al sink un solo hilo a
+ * la vez (contador wip, ver {@link #drain()}).
+ *
+ * La consulta agrupada corre en la suscripción propia del agrupador, no en la
+ * de quien pide el usuario: no ve su contexto de Reactor (observación actual,
+ * transacción). Por eso UserRepositoryImpl no usa el agrupador dentro de una
+ * transacción: ahí la consulta debe ir por la conexión de la transacción.
+ *
+ * Trazas: load() toma la observación de quien llama y abre como hija la
+ * espera hasta que el lote se ejecuta (users.lookup.batch.wait). El lote
+ * (users.lookup.batch, con la consulta, el pool y la sentencia R2DBC) cuelga
+ * de la observación de la primera búsqueda del lote; el resto de los
+ * solicitantes solo ven su espera.
+ *
+ * Métricas:
+ * - users.lookup.batch.size: IDs distintos por consulta agrupada
+ * - users.lookup.batch.wait: espera de cada búsqueda hasta que su lote se ejecuta (observación)
+ * - users.lookup.batch: ejecución de cada consulta agrupada (observación)
+ * - users.lookup.pending: búsquedas encoladas que aún no entran en un lote
+ * - users.lookup.rejected: búsquedas rechazadas por cola llena
+ */
+@Component
+@Slf4j
+public class UserLookupCoalescer {
+
+    private final R2dbcUserRepository r2dbcRepository;
+    private final UserMapper mapper;
+    private final Queue<Lookup> queue = Queues.<Lookup>unboundedMultiproducer().get();
+    private final AtomicInteger wip = new AtomicInteger();
+    private final Sinks.Many<Lookup> lookups;
+    private final int maxPending;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Counter rejected;
+    private final DistributionSummary batchSize;
+    private final ObservationRegistry observationRegistry;
+    private final Disposable subscription;
+
+    public UserLookupCoalescer(
+            R2dbcUserRepository r2dbcRepository,
+            UserMapper mapper,
+            UserLookupProperties properties,
+            MeterRegistry meterRegistry,
+            ObservationRegistry observationRegistry
+    ) {
+        this.r2dbcRepository = r2dbcRepository;
+        this.mapper = mapper;
+        // Un solo hilo emite a la vez (drain); el límite lo impone el contador pending
+        this.lookups = Sinks.many().unicast().onBackpressureBuffer();
+        this.maxPending = properties.getMaxPending();
+        this.rejected = Counter.builder("users.lookup.rejected")
+                .description("Búsquedas de usuarios rechazadas por cola llena")
+                .register(meterRegistry);
+        Gauge.builder("users.lookup.pending", pending, AtomicInteger::get)
+                .description("Búsquedas de usuarios encoladas que aún no entran en un lote")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("users.lookup.batch.size")
+                .description("IDs distintos por consulta agrupada de usuarios")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.observationRegistry = observationRegistry;
+
+        this.subscription = lookups.asFlux()
+                .bufferTimeout(properties.getBatchSize(), Duration.ofMillis(properties.getMaxWait()), true)
+                .flatMap(this::execute, properties.getMaxConcurrentBatches())
+                .subscribe(null, error -> log.error("Agrupador de búsquedas de usuarios detenido: {}",
+                        error.getMessage()));
+    }
+
+    /**
+     * Busca un usuario por ID dentro del próximo lote.
+     *
+     * @param id UUID del usuario
+     * @return Mono<User> con el usuario encontrado o vacío; error
+     *         UserLookupUnavailableException si hay demasiadas búsquedas pendientes
+     */
+    public Mono<User> load(UUID id) {
+        return Mono.deferContextual(context -> {
+            if (pending.incrementAndGet() > maxPending) {
+                pending.decrementAndGet();
+                rejected.increment();
+                return Mono.error(new UserLookupUnavailableException());
+            }
+            Observation caller = context.getOrDefault(ObservationThreadLocalAccessor.KEY, null);
+            Observation wait = Observation.createNotStarted("users.lookup.batch.wait", observationRegistry)
+                    .contextualName("user lookup wait")
+                    .parentObservation(caller)
+                    .start();
+            Lookup lookup = new Lookup(id, new CompletableFuture<>(), caller, wait);
+            queue.offer(lookup);
+            drain();
+            return Mono.fromFuture(lookup.result(), true);
+        });
+    }
+
+    /**
+     * Pasa las búsquedas encoladas al sink, desde un solo hilo a la vez.
+     *
+     * El hilo que toma el contador wip emite también lo que otros hilos
+     * encolen mientras tanto; los demás retornan sin esperar ni reintentar.
+     */
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            Lookup lookup;
+            while ((lookup = queue.poll()) != null) {
+                if (lookups.tryEmitNext(lookup).isFailure()) {
+                    // Solo ocurre si el agrupador se detuvo (apagado o error)
+                    pending.decrementAndGet();
+                    lookup.wait().stop();
+                    lookup.result().completeExceptionally(new UserLookupUnavailableException());
+                }
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private Mono<Void> execute(List<Lookup> batch) {
+        pending.addAndGet(-batch.size());
+        batch.forEach(lookup -> lookup.wait().stop());
+
+        UUID[] ids = batch.stream().map(Lookup::id).distinct().toArray(UUID[]::new);
+        batchSize.record(ids.length);
+
+        // El lote cuelga de la traza de su primera búsqueda (ver Javadoc de la clase)
+        Observation parent = batch.getFirst().caller();
+        return ReactiveObservations.observe(
+                        () -> Observation.createNotStarted("users.lookup.batch", observationRegistry)
+                                .contextualName("user lookup batch")
+                                .highCardinalityKeyValue("batch.size", String.valueOf(ids.length)),
+                        observation -> r2dbcRepository.findAllByIds(ids)
+                                .collect(Collectors.toMap(UserEntity::getId, Function.identity())))
+                .contextWrite(context -> parent != null
+                        ? context.put(ObservationThreadLocalAccessor.KEY, parent)
+                        : context)
+                .doOnNext(found -> complete(batch, found))
+                .doOnError(error -> batch.forEach(lookup -> lookup.result().completeExceptionally(error)))
+                .onErrorResume(error -> Mono.empty())
+                .then();
+    }
+
+    private void complete(List<Lookup> batch, Map<UUID, UserEntity> found) {
+        for (Lookup lookup : batch) {
+            UserEntity entity = found.get(lookup.id());
+            try {
+                lookup.result().complete(entity != null ? mapper.toDomain(entity) : null);
+            } catch (RuntimeException e) {
+                lookup.result().completeExceptionally(e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        lookups.tryEmitComplete();
+        subscription.dispose();
+    }
+
+    /**
+     * @param caller Observación de quien llama (padre de la espera), o null
+     * @param wait   Espera hasta que el lote se ejecuta
+     */
+    private record Lookup(UUID id, CompletableFuture<User> result, Observation caller, Observation wait) {
+    }
+}
@@ -0,0 +1,34 @@
+package com.jdbayer.facturacion.infrastructure.persistence.repository.impl;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Component
+public class UserLookupProperties {
+
+    /**
+     * Máximo de IDs por consulta agrupada.
+     */
+    @Value("${persistence.user-lookup.batch-size:64}")
+    private int batchSize;
+
+    /**
+     * Tiempo máximo que una búsqueda espera a que se llene el lote (ms).
+     */
+    @Value("${persistence.user-lookup.max-wait:1}")
+    private long maxWait;
+
+    /**
+     * Consultas agrupadas en vuelo a la vez.
+     */
+    @Value("${persistence.user-lookup.max-concurrent-batches:8}")
+    private int maxConcurrentBatches;
+
+    /**
+     * Búsquedas pendientes (encoladas o esperando un lote) antes de rechazar con 503.
+     */
+    @Value("${persistence.user-lookup.max-pending:4096}")
+    private int maxPending;
+}
@@ -0,0 +1,21 @@
+package com.jdbayer.facturacion.infrastructure.persistence.repository.impl;
+
+import java.io.Serial;
+
+/**
+ * Se lanza cuando la cola de búsquedas agrupadas de usuarios está llena.
+ *
+ * Con la BD lenta las búsquedas se acumulan; pasado el límite
+ * (persistence.user-lookup.max-pending) se rechazan de inmediato con 503 y
+ * Retry-After en lugar de crecer en memoria sin límite.
+ */
+public class UserLookupUnavailableException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = -6310457287019431872L;
+
+    public UserLookupUnavailableException() {
+        // Sin stack trace: es un rechazo esperado bajo carga
+        super("El servicio está ocupado, intente nuevamente en unos segundos", null, false, false);
+    }
+}
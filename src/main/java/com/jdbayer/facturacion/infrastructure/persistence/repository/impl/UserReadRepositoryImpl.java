@@ -0,0 +1,75 @@
+package com.jdbayer.facturacion.infrastructure.persistence.repository.impl;
+
+import com.jdbayer.facturacion.application.dto.response.UserResponse;
+import com.jdbayer.facturacion.application.mapper.UserDomainMapper;
+import com.jdbayer.facturacion.application.repository.UserReadRepository;
+import com.jdbayer.facturacion.infrastructure.cache.CachingUserRepository;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Proyecciones de solo lectura de usuarios.
+ *
+ * Selecciona solo las columnas de UserResponse (nunca password) y mapea
+ * cada fila directo al DTO: sin UserEntity, sin User y sin value objects.
+ * Los valores ya fueron normalizados y validados al escribirse.
+ *
+ * Primero se consulta el cache de usuarios ({@link CachingUserRepository}):
+ * si el usuario ya está cacheado (p. ej. tras el login) se responde sin ir a
+ * la BD. Un fallo de cache no lo llena: cargar el agregado completo (con la
+ * contraseña) costaría más que la proyección.
+ */
+@Repository
+public class UserReadRepositoryImpl implements UserReadRepository {
+
+    private static final String FIND_RESPONSE_BY_ID_SQL =
+            "SELECT id, name, last_name, email, is_active, created_at, updated_at FROM security.users WHERE id = :id";
+
+    private final DatabaseClient databaseClient;
+    private final CachingUserRepository userCache;
+    private final UserDomainMapper userDomainMapper;
+
+    public UserReadRepositoryImpl(
+            DatabaseClient databaseClient,
+            CachingUserRepository userCache,
+            UserDomainMapper userDomainMapper
+    ) {
+        this.databaseClient = databaseClient;
+        this.userCache = userCache;
+        this.userDomainMapper = userDomainMapper;
+    }
+
+    /**
+     * Busca un usuario por ID y lo retorna como UserResponse.
+     *
+     * @param id UUID del usuario
+     * @return Mono<UserResponse> con el usuario encontrado o vacío
+     */
+    @Override
+    public Mono<UserResponse> findResponseById(UUID id) {
+        return userCache.findCachedById(id)
+                .map(userDomainMapper::toResponse)
+                .switchIfEmpty(Mono.defer(() -> databaseClient.sql(FIND_RESPONSE_BY_ID_SQL)
+                        .bind("id", id)
+                        .map(UserReadRepositoryImpl::toResponse)
+                        .one()));
+    }
+
+    static UserResponse toResponse(Readable row) {
+        Boolean active = row.get("is_active", Boolean.class);
+        return new UserResponse(
+                row.get("id", UUID.class),
+                row.get("name", String.class),
+                row.get("last_name", String.class),
+                row.get("email", String.class),
+                Boolean.TRUE.equals(active),
+                row.get("created_at", Instant.class),
+                row.get("updated_at", Instant.class)
+        );
+    }
+}
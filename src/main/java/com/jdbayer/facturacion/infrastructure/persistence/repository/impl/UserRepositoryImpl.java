@@ -1,13 +1,27 @@
 package com.jdbayer.facturacion.infrastructure.persistence.repository.impl;
 
+import com.jdbayer.facturacion.domain.exception.DuplicateEmailException;
+import com.jdbayer.facturacion.domain.exception.UserNotFoundException;
 import com.jdbayer.facturacion.domain.model.User;
 import com.jdbayer.facturacion.domain.model.valueobject.Email;
 import com.jdbayer.facturacion.domain.repository.UserRepository;
+import com.jdbayer.facturacion.infrastructure.cache.CacheInvalidationBus;
+import com.jdbayer.facturacion.infrastructure.persistence.entity.UserEntity;
 import com.jdbayer.facturacion.infrastructure.persistence.mapper.UserMapper;
 import com.jdbayer.facturacion.infrastructure.persistence.repository.R2dbcUserRepository;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.data.relational.core.query.Update;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.UUID;
 
 /**
@@ -21,44 +35,142 @@ import java.util.UUID;
  * - Convertir entre objetos de dominio y entidades de BD
  * - Delegar operaciones a Spring Data R2DBC
  * - Manejar la conversión de Value Objects
+ * - Notificar a los demás nodos cuando un usuario cambia
  */
 @Repository
 public class UserRepositoryImpl implements UserRepository {
 
     private final R2dbcUserRepository r2dbcRepository;
     private final UserMapper mapper;
+    private final CacheInvalidationBus invalidationBus;
+    private final UserLookupCoalescer lookupCoalescer;
+    private final R2dbcEntityTemplate entityTemplate;
 
-    public UserRepositoryImpl(R2dbcUserRepository r2dbcRepository, UserMapper mapper) {
+    public UserRepositoryImpl(
+            R2dbcUserRepository r2dbcRepository,
+            UserMapper mapper,
+            CacheInvalidationBus invalidationBus,
+            UserLookupCoalescer lookupCoalescer,
+            R2dbcEntityTemplate entityTemplate
+    ) {
         this.r2dbcRepository = r2dbcRepository;
         this.mapper = mapper;
+        this.invalidationBus = invalidationBus;
+        this.lookupCoalescer = lookupCoalescer;
+        this.entityTemplate = entityTemplate;
     }
 
     /**
      * Guarda un usuario en la base de datos.
      *
-     * Si el usuario no existe (INSERT), crea uno nuevo.
-     * Si el usuario existe (UPDATE), lo actualiza.
+     * - Usuario nuevo (User.create): INSERT ... ON CONFLICT, en un solo viaje a la BD
+     * - Usuario existente: UPDATE solo de las columnas modificadas (más updated_at)
+     * - Usuario sin cambios: no se escribe nada
+     *
+     * Escribir solo lo que cambió reduce el WAL y permite HOT updates
+     * (las columnas indexadas, como email, solo se escriben si cambiaron).
      *
      * @param user Usuario del dominio
      * @return Mono<User> con el usuario guardado
+     * @throws DuplicateEmailException si el email de un usuario nuevo ya está registrado
+     * @throws UserNotFoundException si el usuario a actualizar ya no existe
      */
     @Override
     public Mono<User> save(User user) {
-        return Mono.just(user)
-                .map(mapper::toEntity)           // Domain → Entity
-                .flatMap(r2dbcRepository::save)  // Guardar en BD
-                .map(mapper::toDomain);          // Entity → Domain
+        if (user.isNew()) {
+            return insert(user);
+        }
+        if (!user.hasChanges()) {
+            return Mono.just(user);
+        }
+
+        Update update = Update.update("updated_at", user.getUpdatedAt());
+        for (User.Field field : user.getChangedFields()) {
+            update = update.set(column(field), value(user, field));
+        }
+
+        return entityTemplate.update(UserEntity.class)
+                .matching(Query.query(Criteria.where("id").is(user.getId())))
+                .apply(update)
+                .onErrorMap(DuplicateKeyException.class, error -> user.getChangedFields().contains(User.Field.EMAIL)
+                        ? new DuplicateEmailException(user.getEmail().value())
+                        : error)
+                .flatMap(rows -> rows == 0
+                        ? Mono.<User>error(new UserNotFoundException(user.getId()))
+                        : Mono.just(user))
+                .doOnNext(User::markPersisted)
+                .flatMap(saved -> invalidationBus.publishUserInvalidated(saved.getId())
+                        .thenReturn(saved));
+    }
+
+    private Mono<User> insert(User user) {
+        return r2dbcRepository.insertIfEmailAvailable(
+                        user.getId(),
+                        user.getName().value(),
+                        user.getLastName().value(),
+                        user.getEmail().value(),
+                        user.getPasswordHash().value(),
+                        user.isActive(),
+                        user.getCreatedAt(),
+                        user.getUpdatedAt())
+                .switchIfEmpty(Mono.error(() -> new DuplicateEmailException(user.getEmail().value())))
+                .doOnNext(inserted -> user.markPersisted())
+                .thenReturn(user);
+    }
+
+    private static String column(User.Field field) {
+        return switch (field) {
+            case NAME -> "name";
+            case LAST_NAME -> "last_name";
+            case EMAIL -> "email";
+            case PASSWORD_HASH -> "password";
+            case ACTIVE -> "is_active";
+        };
+    }
+
+    private static Object value(User user, User.Field field) {
+        return switch (field) {
+            case NAME -> user.getName().value();
+            case LAST_NAME -> user.getLastName().value();
+            case EMAIL -> user.getEmail().value();
+            case PASSWORD_HASH -> user.getPasswordHash().value();
+            case ACTIVE -> user.isActive();
+        };
     }
 
     /**
      * Busca un usuario por su ID.
      *
+     * Las búsquedas concurrentes se agrupan en una sola consulta
+     * (ver {@link UserLookupCoalescer}). Dentro de una transacción se consulta
+     * directamente: el lote corre fuera del contexto de quien llama y no
+     * usaría la conexión de la transacción.
+     *
      * @param id UUID del usuario
      * @return Mono<User> con el usuario encontrado o vacío
      */
     @Override
     public Mono<User> findById(UUID id) {
-        return r2dbcRepository.findById(id)
+        return TransactionSynchronizationManager.forCurrentTransaction()
+                .map(TransactionSynchronizationManager::isActualTransactionActive)
+                .onErrorResume(NoTransactionException.class, e -> Mono.just(false))
+                .flatMap(inTransaction -> inTransaction
+                        ? r2dbcRepository.findById(id).map(mapper::toDomain)
+                        : lookupCoalescer.load(id));
+    }
+
+    /**
+     * Busca varios usuarios por ID en una sola consulta.
+     *
+     * @param ids IDs de los usuarios
+     * @return Flux<User> con los usuarios encontrados (sin orden garantizado)
+     */
+    @Override
+    public Flux<User> findAllByIds(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return Flux.empty();
+        }
+        return r2dbcRepository.findAllByIds(ids.stream().distinct().toArray(UUID[]::new))
                 .map(mapper::toDomain);
     }
 
@@ -85,6 +197,32 @@ public class UserRepositoryImpl implements UserRepository {
         return r2dbcRepository.existsByEmail(email.value());
     }
 
+    /**
+     * Activa un usuario con un UPDATE condicional (sin leerlo antes).
+     *
+     * @param id UUID del usuario
+     * @return Mono<Boolean> true si cambió de estado
+     */
+    @Override
+    public Mono<Boolean> activate(UUID id) {
+        return r2dbcRepository.activate(id, Instant.now())
+                .flatMap(updated -> invalidationBus.publishUserInvalidated(updated).thenReturn(true))
+                .defaultIfEmpty(false);
+    }
+
+    /**
+     * Desactiva un usuario con un UPDATE condicional (sin leerlo antes).
+     *
+     * @param id UUID del usuario
+     * @return Mono<Boolean> true si cambió de estado
+     */
+    @Override
+    public Mono<Boolean> deactivate(UUID id) {
+        return r2dbcRepository.deactivate(id, Instant.now())
+                .flatMap(updated -> invalidationBus.publishUserInvalidated(updated).thenReturn(true))
+                .defaultIfEmpty(false);
+    }
+
     /**
      * Elimina un usuario por su ID.
      *
@@ -93,6 +231,7 @@ public class UserRepositoryImpl implements UserRepository {
      */
     @Override
     public Mono<Void> deleteById(UUID id) {
-        return r2dbcRepository.deleteById(id);
+        return r2dbcRepository.deleteById(id)
+                .then(Mono.defer(() -> invalidationBus.publishUserInvalidated(id)));
     }
 }
\ No newline at end of file
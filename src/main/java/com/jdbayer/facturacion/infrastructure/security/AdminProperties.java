@@ -0,0 +1,35 @@
+package com.jdbayer.facturacion.infrastructure.security;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Usuarios administradores (ROLE_ADMIN), por email.
+ *
+ * Solo ellos acceden a /actuator (salvo health e info). Vacío por defecto:
+ * sin configurarlo, nadie puede leer los endpoints de administración.
+ */
+@Getter
+@Component
+public class AdminProperties {
+
+    private final Set<String> emails;
+
+    public AdminProperties(@Value("${security.admin.emails:}") List<String> emails) {
+        this.emails = emails.stream()
+                .map(String::trim)
+                .filter(email -> !email.isEmpty())
+                .map(email -> email.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    public boolean isAdmin(String email) {
+        return email != null && emails.contains(email.toLowerCase(Locale.ROOT));
+    }
+}
@@ -1,11 +1,17 @@
 package com.jdbayer.facturacion.infrastructure.security;
 
 import com.jdbayer.facturacion.domain.security.PasswordEncoder;
+import com.jdbayer.facturacion.infrastructure.security.hashing.PasswordHashAlgorithm;
+import com.jdbayer.facturacion.infrastructure.security.hashing.PasswordHashCalibration;
+import com.jdbayer.facturacion.infrastructure.security.hashing.PasswordHashingExecutor;
+import com.jdbayer.facturacion.infrastructure.security.hashing.PasswordHashingProperties;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
 
 /**
- * Implementación de PasswordEncoder usando BCrypt.
+ * Implementación de PasswordEncoder usando BCrypt (o Argon2id).
  *
  * BCrypt es un algoritmo de hash adaptativo diseñado para contraseñas que:
  * - Incluye salt automáticamente (protege contra rainbow tables)
@@ -16,52 +22,63 @@ import org.springframework.stereotype.Component;
  * - Implementa una interfaz del dominio
  * - Usa una dependencia externa (Spring Security BCrypt)
  * - Es un detalle de implementación que puede cambiar
+ *
+ * El hashing se ejecuta en {@link PasswordHashingExecutor}, nunca en el
+ * event loop de Netty.
+ *
+ * El factor de trabajo no está fijo: se calibra al arrancar según el
+ * presupuesto de latencia (ver {@link PasswordHashCalibration}). Los hashes
+ * con un costo o algoritmo anterior se siguen verificando, y
+ * {@link #upgradeEncoding(String)} indica cuándo conviene rehashearlos.
  */
 @Component
 public class SecurityConfig implements PasswordEncoder {
 
     /**
-     * BCryptPasswordEncoder de Spring Security.
-     * Por defecto usa un strength de 10 (2^10 = 1024 rondas).
+     * Encoders de Spring Security, uno por algoritmo.
      *
-     * Valores comunes:
-     * - 4-6: Rápido, poco seguro (solo para testing)
-     * - 10: Balance recomendado (default)
-     * - 12-14: Más seguro pero más lento
+     * Ambos verifican hashes con cualquier costo (el costo va dentro del hash),
+     * pero solo el del algoritmo configurado genera hashes nuevos.
      */
-    private final BCryptPasswordEncoder encoder;
+    private final BCryptPasswordEncoder bcrypt;
+    private final Argon2PasswordEncoder argon2;
+    private final PasswordHashAlgorithm algorithm;
+    private final PasswordHashingExecutor hashingExecutor;
 
-    public SecurityConfig() {
-        // Usando el strength por defecto (10)
-        this.encoder = new BCryptPasswordEncoder();
+    public SecurityConfig(PasswordHashCalibration calibration, PasswordHashingExecutor hashingExecutor) {
+        this.bcrypt = calibration.bcrypt();
+        this.argon2 = calibration.argon2();
+        this.algorithm = calibration.algorithm();
+        this.hashingExecutor = hashingExecutor;
     }
 
     /**
-     * Codifica una contraseña en texto plano usando BCrypt.
+     * Codifica una contraseña en texto plano con el algoritmo configurado.
      * Cada invocación genera un salt único, por lo que la misma contraseña
      * producirá diferentes hashes.
      *
      * @param rawPassword Contraseña en texto plano
-     * @return Hash BCrypt de la contraseña (60 caracteres)
+     * @return Mono con el hash de la contraseña
      *
-     * Ejemplo:
-     * encode("password123") → "$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy"
-     * encode("password123") → "$2a$10$XYZ..." (diferente hash, mismo password)
+     * Ejemplo (BCrypt):
+     * encode("password123") → "$2a$11$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy"
+     * encode("password123") → "$2a$11$XYZ..." (diferente hash, mismo password)
      */
     @Override
-    public String encode(String rawPassword) {
+    public Mono<String> encode(String rawPassword) {
         if (rawPassword == null) {
-            throw new IllegalArgumentException("La contraseña no puede ser nula");
+            return Mono.error(new IllegalArgumentException("La contraseña no puede ser nula"));
         }
-        return encoder.encode(rawPassword);
+        return hashingExecutor.execute("encode", () -> encoderFor(algorithm).encode(rawPassword));
     }
 
     /**
-     * Verifica si una contraseña en texto plano coincide con un hash BCrypt.
+     * Verifica si una contraseña en texto plano coincide con un hash almacenado.
+     * El algoritmo se detecta por el prefijo del hash ($2a$, $argon2id$).
      *
      * @param rawPassword Contraseña en texto plano
-     * @param encodedPassword Hash BCrypt almacenado
-     * @return true si coinciden, false en caso contrario
+     * @param encodedPassword Hash almacenado
+     * @return Mono con true si coinciden, false en caso contrario
      *
      * Ejemplo:
      * String hash = encode("password123");
@@ -69,10 +86,37 @@ public class SecurityConfig implements PasswordEncoder {
      * matches("wrongpassword", hash) → false
      */
     @Override
-    public boolean matches(String rawPassword, String encodedPassword) {
+    public Mono<Boolean> matches(String rawPassword, String encodedPassword) {
         if (rawPassword == null || encodedPassword == null) {
+            return Mono.just(false);
+        }
+        var encoder = encoderFor(PasswordHashAlgorithm.of(encodedPassword));
+        return hashingExecutor.execute("matches", () -> encoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Indica si un hash debe regenerarse: usa otro algoritmo o un costo
+     * menor al calibrado en este nodo.
+     *
+     * Solo inspecciona los parámetros del hash, no ejecuta el algoritmo.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
             return false;
         }
-        return encoder.matches(rawPassword, encodedPassword);
+        if (PasswordHashAlgorithm.of(encodedPassword) != algorithm) {
+            return true;
+        }
+        try {
+            return encoderFor(algorithm).upgradeEncoding(encodedPassword);
+        } catch (IllegalArgumentException e) {
+            // Hash con formato no reconocido: regenerarlo
+            return true;
+        }
+    }
+
+    private org.springframework.security.crypto.password.PasswordEncoder encoderFor(PasswordHashAlgorithm hashAlgorithm) {
+        return hashAlgorithm == PasswordHashAlgorithm.ARGON2ID ? argon2 : bcrypt;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,20 @@
+package com.jdbayer.facturacion.infrastructure.security.blacklist;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Component
+public class BlacklistProperties {
+
+    @Value("${security.blacklist.expected-insertions:100000}")
+    private long expectedInsertions;
+
+    @Value("${security.blacklist.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    @Value("${security.blacklist.max-entries:1000000}")
+    private int maxEntries;
+
+}
@@ -0,0 +1,100 @@
+package com.jdbayer.facturacion.infrastructure.security.blacklist;
+
+import com.jdbayer.facturacion.infrastructure.security.jwt.TokenDigest;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom concurrente para digests de tokens.
+ *
+ * Responde "definitivamente no está" sin falsos negativos; un "puede estar"
+ * debe confirmarse contra el conjunto exacto.
+ *
+ * Como el digest SHA-256 ya está uniformemente distribuido, las posiciones se
+ * derivan directamente de sus bytes con doble hashing (h1 + i * h2), sin volver
+ * a hashear. Los bits se guardan en un AtomicLongArray, así que put() y
+ * mightContain() son lock-free.
+ *
+ * No admite eliminaciones: cuando expiran entradas se reconstruye un filtro nuevo.
+ */
+class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitSize;
+    private final int hashFunctions;
+    private final long expectedInsertions;
+
+    private BloomFilter(long bitSize, int hashFunctions, long expectedInsertions) {
+        this.bits = new AtomicLongArray(Math.toIntExact((bitSize + 63) / 64));
+        this.bitSize = bitSize;
+        this.hashFunctions = hashFunctions;
+        this.expectedInsertions = expectedInsertions;
+    }
+
+    /**
+     * Crea un filtro dimensionado para la cantidad de inserciones y la tasa de
+     * falsos positivos esperadas.
+     */
+    static BloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        long m = Math.max(64, (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2))));
+        int k = Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+        return new BloomFilter(m, k, n);
+    }
+
+    void put(TokenDigest digest) {
+        long h1 = readLong(digest, 0);
+        long h2 = readLong(digest, 8);
+        for (int i = 0; i < hashFunctions; i++) {
+            long index = Math.floorMod(h1 + i * h2, bitSize);
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long current = bits.get(word);
+            while ((current & mask) == 0) {
+                long witness = bits.compareAndExchange(word, current, current | mask);
+                if (witness == current) {
+                    break;
+                }
+                current = witness;
+            }
+        }
+    }
+
+    boolean mightContain(TokenDigest digest) {
+        long h1 = readLong(digest, 0);
+        long h2 = readLong(digest, 8);
+        for (int i = 0; i < hashFunctions; i++) {
+            long index = Math.floorMod(h1 + i * h2, bitSize);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Tasa teórica de falsos positivos para la cantidad de elementos dada.
+     */
+    double expectedFalsePositiveRate(long insertions) {
+        return Math.pow(1 - Math.exp(-(double) hashFunctions * insertions / bitSize), hashFunctions);
+    }
+
+    long expectedInsertions() {
+        return expectedInsertions;
+    }
+
+    /**
+     * Tamaño aproximado en bytes del arreglo de bits.
+     */
+    long sizeInBytes() {
+        return (long) bits.length() * Long.BYTES;
+    }
+
+    private static long readLong(TokenDigest digest, int offset) {
+        long value = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            value = (value << 8) | (digest.byteAt(offset + i) & 0xFF);
+        }
+        return value;
+    }
+}
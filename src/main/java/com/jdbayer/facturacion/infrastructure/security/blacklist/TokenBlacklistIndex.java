@@ -0,0 +1,264 @@
+package com.jdbayer.facturacion.infrastructure.security.blacklist;
+
+import com.jdbayer.facturacion.infrastructure.cache.CacheInvalidationListener;
+import com.jdbayer.facturacion.infrastructure.persistence.repository.R2dbcBlacklistedTokenRepository;
+import com.jdbayer.facturacion.infrastructure.security.jwt.TokenDigest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Índice en memoria de la blacklist de tokens, local a cada nodo.
+ *
+ * Evita un SELECT EXISTS contra security.blacklisted_tokens en cada request
+ * autenticado:
+ * 1. Un filtro de Bloom responde "definitivamente no está" sin I/O (caso común)
+ * 2. Solo los posibles positivos se confirman contra el conjunto exacto en memoria
+ * 3. Mientras el índice no se ha cargado, se consulta la BD
+ *
+ * El conjunto exacto está acotado (security.blacklist.max-entries). Si una
+ * carga o una notificación lo llenaría, el índice pasa a modo desbordado: no
+ * guarda más entradas y, como el filtro tampoco las conserva al
+ * reconstruirse, todas las consultas van a la BD (nunca se responde "no
+ * está" para un token que no se pudo guardar). Cuando la depuración libera
+ * espacio se recarga desde la BD y, si ya cabe todo, vuelve a responder
+ * desde memoria.
+ *
+ * El índice se carga con los tokens aún no expirados cuando el bus de
+ * invalidación se conecta (y en cada reconexión), recibe los tokens blacklisted
+ * por otros nodos y descarta periódicamente las entradas cuyo expires_at ya
+ * pasó, reconstruyendo el filtro.
+ *
+ * Métricas:
+ * - security.blacklist.entries: entradas en el conjunto exacto
+ * - security.blacklist.memory: bytes aproximados (filtro + conjunto exacto)
+ * - security.blacklist.false-positive-rate: tasa observada de falsos positivos del filtro
+ * - security.blacklist.lookups: consultas por resultado (bloom_negative, hit,
+ *   false_positive: el filtro acierta pero el digest no está en el conjunto,
+ *   expired: el digest está pero ya expiró, database)
+ */
+@Component
+@Slf4j
+public class TokenBlacklistIndex implements CacheInvalidationListener {
+
+    /**
+     * Tamaño aproximado de una entrada del conjunto exacto:
+     * nodo del ConcurrentHashMap + TokenDigest + byte[32] + Instant.
+     */
+    private static final long ENTRY_SIZE_BYTES = 32 + 32 + 48 + 24;
+
+    private final R2dbcBlacklistedTokenRepository blacklistedTokenRepository;
+    private final BlacklistProperties properties;
+
+    private final Map<TokenDigest, Instant> entries = new ConcurrentHashMap<>();
+    private volatile BloomFilter bloomFilter;
+    private volatile boolean loaded;
+    private volatile boolean overflowed;
+    /** Entradas no guardadas por el tope; decide si una recarga sale del modo desbordado. */
+    private final AtomicLong omitted = new AtomicLong();
+
+    private final Counter bloomNegatives;
+    private final Counter confirmedHits;
+    private final Counter falsePositives;
+    private final Counter expiredHits;
+    private final Counter databaseFallbacks;
+
+    public TokenBlacklistIndex(
+            R2dbcBlacklistedTokenRepository blacklistedTokenRepository,
+            BlacklistProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.blacklistedTokenRepository = blacklistedTokenRepository;
+        this.properties = properties;
+        this.bloomFilter = BloomFilter.create(properties.getExpectedInsertions(), properties.getFalsePositiveRate());
+
+        this.bloomNegatives = lookupCounter(meterRegistry, "bloom_negative");
+        this.confirmedHits = lookupCounter(meterRegistry, "hit");
+        this.falsePositives = lookupCounter(meterRegistry, "false_positive");
+        this.expiredHits = lookupCounter(meterRegistry, "expired");
+        this.databaseFallbacks = lookupCounter(meterRegistry, "database");
+
+        Gauge.builder("security.blacklist.entries", entries, Map::size)
+                .description("Tokens blacklisted vigentes en memoria")
+                .register(meterRegistry);
+        Gauge.builder("security.blacklist.memory", this, TokenBlacklistIndex::estimatedMemoryBytes)
+                .description("Memoria aproximada del índice de blacklist")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("security.blacklist.false-positive-rate", this, TokenBlacklistIndex::observedFalsePositiveRate)
+                .description("Tasa observada de falsos positivos del filtro de Bloom")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Verifica si un token está en la blacklist.
+     *
+     * @param token     Token JWT
+     * @param expiresAt Expiración del token (claim exp); acota la consulta a la BD a su partición
+     * @return Mono<Boolean> - true si está blacklisted y no ha expirado
+     */
+    public Mono<Boolean> isBlacklisted(String token, Instant expiresAt) {
+        if (!loaded || overflowed) {
+            databaseFallbacks.increment();
+            return blacklistedTokenRepository.existsByToken(token, expiresAt);
+        }
+
+        TokenDigest digest = TokenDigest.of(token);
+        if (!bloomFilter.mightContain(digest)) {
+            bloomNegatives.increment();
+            return Mono.just(false);
+        }
+
+        Instant entryExpiresAt = entries.get(digest);
+        if (entryExpiresAt == null) {
+            falsePositives.increment();
+            return Mono.just(false);
+        }
+        if (entryExpiresAt.isAfter(Instant.now())) {
+            confirmedHits.increment();
+            return Mono.just(true);
+        }
+
+        // Expiró y aún no se depura: no es un falso positivo del filtro
+        expiredHits.increment();
+        return Mono.just(false);
+    }
+
+    /**
+     * Registra un token recién agregado a la blacklist.
+     *
+     * @param token     Token JWT
+     * @param expiresAt Fecha de expiración del token
+     */
+    public void add(String token, Instant expiresAt) {
+        add(TokenDigest.of(token), expiresAt);
+    }
+
+    /**
+     * Registra un digest de token blacklisted.
+     */
+    public void add(TokenDigest digest, Instant expiresAt) {
+        if (!expiresAt.isAfter(Instant.now())) {
+            return;
+        }
+        if (entries.size() >= properties.getMaxEntries() && !entries.containsKey(digest)) {
+            omitted.incrementAndGet();
+            if (!overflowed) {
+                overflowed = true;
+                log.warn("Índice de blacklist lleno ({} entradas): las consultas van a la BD", entries.size());
+            }
+            return;
+        }
+        // Primero el conjunto exacto y luego el filtro: así una reconstrucción
+        // concurrente del filtro siempre ve la entrada (ver rebuildBloomFilter)
+        entries.merge(digest, expiresAt, (current, candidate) -> current.isAfter(candidate) ? current : candidate);
+        bloomFilter.put(digest);
+    }
+
+    /**
+     * Aplica un token blacklisted por otro nodo.
+     */
+    @Override
+    public void onTokenBlacklisted(TokenDigest digest, Instant expiresAt) {
+        add(digest, expiresAt);
+    }
+
+    /**
+     * Recarga el índice tras (re)conectar el bus de invalidación.
+     */
+    @Override
+    public Mono<Void> onResync() {
+        return reload();
+    }
+
+    /**
+     * Vuelve a cargar el índice completo desde la BD.
+     *
+     * Mientras dura la carga, las consultas siguen respondiendo con el estado
+     * anterior (o con la BD si el índice nunca se cargó). Las entradas ya
+     * presentes se conservan: solo la depuración por expiración las elimina,
+     * así no se pierden tokens recibidos por notificación durante la carga.
+     */
+    public Mono<Void> reload() {
+        return Mono.defer(() -> {
+            Instant now = Instant.now();
+            long omittedBefore = omitted.get();
+            Map<TokenDigest, Instant> snapshot = new ConcurrentHashMap<>();
+
+            return blacklistedTokenRepository.findAllActive(now)
+                    .doOnNext(entity -> snapshot.put(TokenDigest.fromBytes(entity.getTokenHash()), entity.getExpiresAt()))
+                    .then(Mono.fromRunnable(() -> {
+                        snapshot.forEach(this::add);
+                        rebuildBloomFilter();
+                        // Solo se sale del modo desbordado si nada quedó fuera
+                        // desde que empezó la carga (incluidas las notificaciones)
+                        if (omitted.get() == omittedBefore) {
+                            overflowed = false;
+                        }
+                        loaded = true;
+                        log.info("Índice de blacklist cargado: {} tokens vigentes", entries.size());
+                    }));
+        })
+                .doOnError(error -> log.error("Error al cargar el índice de blacklist: {}", error.getMessage()))
+                .then();
+    }
+
+    /**
+     * Descarta las entradas expiradas y reconstruye el filtro de Bloom.
+     */
+    @Scheduled(fixedDelayString = "${security.blacklist.purge-interval:60000}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        int before = entries.size();
+        entries.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+        int removed = before - entries.size();
+
+        if (removed > 0 || entries.size() > bloomFilter.expectedInsertions()) {
+            rebuildBloomFilter();
+            log.debug("Índice de blacklist depurado: {} entradas expiradas eliminadas", removed);
+        }
+
+        // Desbordado: las entradas omitidas solo están en la BD. Con espacio
+        // libre se recarga; si todo cabe, se vuelve a responder desde memoria
+        // (reload ya registra sus errores)
+        if (overflowed && removed > 0) {
+            reload().subscribe(null, error -> { });
+        }
+    }
+
+    private void rebuildBloomFilter() {
+        long expected = Math.max(properties.getExpectedInsertions(), entries.size() * 2L);
+        BloomFilter rebuilt = BloomFilter.create(expected, properties.getFalsePositiveRate());
+        entries.keySet().forEach(rebuilt::put);
+        bloomFilter = rebuilt;
+        // Segunda pasada: cubre entradas agregadas al filtro anterior durante la reconstrucción
+        entries.keySet().forEach(rebuilt::put);
+    }
+
+    private double estimatedMemoryBytes() {
+        return bloomFilter.sizeInBytes() + (double) entries.size() * ENTRY_SIZE_BYTES;
+    }
+
+    private double observedFalsePositiveRate() {
+        double negatives = bloomNegatives.count();
+        double positives = falsePositives.count();
+        double total = negatives + positives;
+        return total == 0 ? 0 : positives / total;
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("security.blacklist.lookups")
+                .description("Consultas al índice de blacklist")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
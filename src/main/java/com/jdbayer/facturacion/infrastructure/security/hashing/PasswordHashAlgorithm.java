@@ -0,0 +1,31 @@
+package com.jdbayer.facturacion.infrastructure.security.hashing;
+
+import java.util.Locale;
+
+/**
+ * Algoritmos de hashing de contraseñas soportados.
+ *
+ * El algoritmo configurado se usa para los hashes nuevos; los hashes
+ * existentes de cualquiera de los dos se siguen verificando y se migran
+ * al algoritmo configurado en el siguiente login.
+ */
+public enum PasswordHashAlgorithm {
+
+    BCRYPT,
+    ARGON2ID;
+
+    public static PasswordHashAlgorithm from(String value) {
+        return switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "bcrypt" -> BCRYPT;
+            case "argon2id", "argon2" -> ARGON2ID;
+            default -> throw new IllegalArgumentException("Algoritmo de hashing no soportado: " + value);
+        };
+    }
+
+    /**
+     * Detecta el algoritmo de un hash almacenado a partir de su prefijo.
+     */
+    public static PasswordHashAlgorithm of(String encodedPassword) {
+        return encodedPassword.startsWith("$argon2") ? ARGON2ID : BCRYPT;
+    }
+}
@@ -0,0 +1,80 @@
+package com.jdbayer.facturacion.infrastructure.security.hashing;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Encoders de contraseñas calibrados para el hardware de este nodo.
+ *
+ * Solo se calibra el algoritmo configurado; el otro se crea con su costo
+ * mínimo y se usa únicamente para verificar hashes existentes.
+ *
+ * Métrica: security.password.hashing.cost (strength de BCrypt o iteraciones
+ * de Argon2id en uso).
+ */
+@Component
+public class PasswordHashCalibration {
+
+    private static final int ARGON2_SALT_LENGTH = 16;
+    private static final int ARGON2_HASH_LENGTH = 32;
+    private static final int ARGON2_PARALLELISM = 1;
+
+    private final PasswordHashAlgorithm algorithm;
+    private final BCryptPasswordEncoder bcrypt;
+    private final Argon2PasswordEncoder argon2;
+    private final int cost;
+
+    public PasswordHashCalibration(PasswordHashingProperties properties, MeterRegistry meterRegistry) {
+        this.algorithm = properties.getHashAlgorithm();
+        long budget = properties.getLatencyBudget();
+
+        if (algorithm == PasswordHashAlgorithm.BCRYPT) {
+            this.cost = PasswordHashCalibrator.calibrateBCrypt(
+                    BCryptPasswordEncoder::new,
+                    properties.getBcryptMinStrength(),
+                    properties.getBcryptMaxStrength(),
+                    budget
+            );
+            this.bcrypt = new BCryptPasswordEncoder(cost);
+            this.argon2 = argon2(properties.getArgon2Memory(), properties.getArgon2MinIterations());
+        } else {
+            this.cost = PasswordHashCalibrator.calibrateArgon2(
+                    iterations -> argon2(properties.getArgon2Memory(), iterations),
+                    properties.getArgon2MinIterations(),
+                    properties.getArgon2MaxIterations(),
+                    budget
+            );
+            this.argon2 = argon2(properties.getArgon2Memory(), cost);
+            this.bcrypt = new BCryptPasswordEncoder(properties.getBcryptMinStrength());
+        }
+
+        Gauge.builder("security.password.hashing.cost", () -> cost)
+                .description("Factor de trabajo calibrado del hashing de contraseñas")
+                .tag("algorithm", algorithm.name().toLowerCase())
+                .register(meterRegistry);
+    }
+
+    private static Argon2PasswordEncoder argon2(int memory, int iterations) {
+        return new Argon2PasswordEncoder(
+                ARGON2_SALT_LENGTH, ARGON2_HASH_LENGTH, ARGON2_PARALLELISM, memory, iterations);
+    }
+
+    public PasswordHashAlgorithm algorithm() {
+        return algorithm;
+    }
+
+    public BCryptPasswordEncoder bcrypt() {
+        return bcrypt;
+    }
+
+    public Argon2PasswordEncoder argon2() {
+        return argon2;
+    }
+
+    public int cost() {
+        return cost;
+    }
+}
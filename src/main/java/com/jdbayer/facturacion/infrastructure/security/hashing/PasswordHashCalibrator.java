@@ -0,0 +1,91 @@
+package com.jdbayer.facturacion.infrastructure.security.hashing;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.function.IntFunction;
+
+/**
+ * Calibra el factor de trabajo del hashing de contraseñas al arrancar.
+ *
+ * Mide la latencia de un hash con el costo mínimo en el hardware real y
+ * elige el costo más alto cuya latencia estimada cabe en el presupuesto
+ * (security.password-hashing.latency-budget). Así la capacidad de login
+ * por nodo es predecible: paralelismo * (1000 / latencia) hashes por segundo.
+ *
+ * - BCrypt: el tiempo se duplica con cada punto de strength (2^strength rondas)
+ * - Argon2id: el tiempo crece linealmente con las iteraciones
+ *
+ * El costo nunca baja del mínimo configurado, aunque el hardware no alcance
+ * el presupuesto: la seguridad mínima tiene prioridad sobre la latencia.
+ */
+@Slf4j
+final class PasswordHashCalibrator {
+
+    private static final String SAMPLE_PASSWORD = "calibracion-Password-123";
+    private static final int SAMPLES = 3;
+
+    private PasswordHashCalibrator() {
+    }
+
+    /**
+     * Calibra el strength de BCrypt.
+     *
+     * @param encoders Crea un encoder con el strength dado
+     * @param min      Strength mínimo
+     * @param max      Strength máximo
+     * @param budgetMs Presupuesto de latencia por hash
+     */
+    static int calibrateBCrypt(IntFunction<PasswordEncoder> encoders, int min, int max, long budgetMs) {
+        double baseMs = measure(encoders.apply(min));
+        int strength = min;
+        while (strength < max && baseMs * (1L << (strength + 1 - min)) <= budgetMs) {
+            strength++;
+        }
+        report("BCrypt", "strength", strength, baseMs * (1L << (strength - min)), budgetMs);
+        return strength;
+    }
+
+    /**
+     * Calibra las iteraciones de Argon2id (memoria y paralelismo fijos).
+     *
+     * @param encoders Crea un encoder con las iteraciones dadas
+     * @param min      Iteraciones mínimas
+     * @param max      Iteraciones máximas
+     * @param budgetMs Presupuesto de latencia por hash
+     */
+    static int calibrateArgon2(IntFunction<PasswordEncoder> encoders, int min, int max, long budgetMs) {
+        double perIterationMs = measure(encoders.apply(min)) / min;
+        int iterations = min;
+        while (iterations < max && perIterationMs * (iterations + 1) <= budgetMs) {
+            iterations++;
+        }
+        report("Argon2id", "iteraciones", iterations, perIterationMs * iterations, budgetMs);
+        return iterations;
+    }
+
+    /**
+     * Mide la latencia de un hash: una ejecución de calentamiento y
+     * el mínimo de varias muestras (el mínimo es el menos afectado por ruido).
+     */
+    private static double measure(PasswordEncoder encoder) {
+        encoder.encode(SAMPLE_PASSWORD);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1_000_000.0;
+    }
+
+    private static void report(String algorithm, String costName, int cost, double estimatedMs, long budgetMs) {
+        if (estimatedMs > budgetMs) {
+            log.warn("{}: {} mínimo {} excede el presupuesto ({} ms estimados > {} ms)",
+                    algorithm, costName, cost, Math.round(estimatedMs), budgetMs);
+        } else {
+            log.info("{} calibrado: {}={} ({} ms estimados, presupuesto {} ms)",
+                    algorithm, costName, cost, Math.round(estimatedMs), budgetMs);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.jdbayer.facturacion.infrastructure.security.hashing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor acotado para el hashing de contraseñas (BCrypt).
+ *
+ * BCrypt tarda decenas de milisegundos por operación. Ejecutarlo en el event
+ * loop de reactor-netty congela todos los requests de ese loop, así que se
+ * mueve a un pool dedicado:
+ * - Paralelismo configurable (security.password-hashing.parallelism)
+ * - Cola acotada (security.password-hashing.queue-capacity)
+ * - Rechazo inmediato cuando la cola está llena (PasswordHashingUnavailableException)
+ * - Opcionalmente hilos virtuales (security.password-hashing.virtual-threads),
+ *   con el mismo límite de paralelismo y de cola
+ * - Si el suscriptor cancela (p. ej. el cliente cierra la conexión del login)
+ *   antes de que empiece el hash, la tarea sale de la cola o se descarta sin
+ *   ejecutarse; un hash ya en curso no se puede interrumpir
+ *
+ * Métricas:
+ * - security.password.hashing: latencia de cada hash, por operación
+ * - security.password.hashing.queue: tareas esperando turno
+ * - security.password.hashing.active: tareas en ejecución
+ * - security.password.hashing.rejected: tareas rechazadas por saturación
+ */
+@Component
+@Slf4j
+public class PasswordHashingExecutor {
+
+    private final ExecutorService executor;
+    private final Semaphore admission;
+    private final Semaphore running;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Counter rejected;
+
+    public PasswordHashingExecutor(PasswordHashingProperties properties, MeterRegistry meterRegistry) {
+        int parallelism = properties.getEffectiveParallelism();
+        int queueCapacity = properties.getQueueCapacity();
+
+        if (properties.isVirtualThreads()) {
+            this.executor = Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("password-hashing-", 0).factory()
+            );
+            this.admission = new Semaphore(parallelism + queueCapacity);
+            this.running = new Semaphore(parallelism);
+        } else {
+            this.executor = new ThreadPoolExecutor(
+                    parallelism,
+                    parallelism,
+                    0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    platformThreadFactory(),
+                    new ThreadPoolExecutor.AbortPolicy()
+            );
+            this.admission = null;
+            this.running = null;
+        }
+
+        this.meterRegistry = meterRegistry;
+        timer("encode");
+        timer("matches");
+        this.rejected = Counter.builder("security.password.hashing.rejected")
+                .description("Hashes rechazados por saturación del executor")
+                .register(meterRegistry);
+        Gauge.builder("security.password.hashing.queue", queued, AtomicInteger::get)
+                .description("Hashes esperando turno")
+                .register(meterRegistry);
+        Gauge.builder("security.password.hashing.active", active, AtomicInteger::get)
+                .description("Hashes en ejecución")
+                .register(meterRegistry);
+
+        log.info("Executor de hashing: paralelismo={}, cola={}, hilos virtuales={}",
+                parallelism, queueCapacity, properties.isVirtualThreads());
+    }
+
+    /**
+     * Ejecuta la tarea de hashing fuera del event loop.
+     *
+     * @param operation Nombre de la operación (encode, matches) para las métricas
+     * @param task      Tarea a ejecutar
+     * @return Mono con el resultado; error PasswordHashingUnavailableException si está saturado
+     */
+    public <T> Mono<T> execute(String operation, Callable<T> task) {
+        Timer timer = timer(operation);
+
+        return Mono.create(sink -> {
+            if (admission != null && !admission.tryAcquire()) {
+                reject();
+                sink.error(new PasswordHashingUnavailableException());
+                return;
+            }
+
+            AtomicBoolean cancelled = new AtomicBoolean();
+            Runnable command = () -> run(timer, task, sink, cancelled);
+            queued.incrementAndGet();
+            try {
+                executor.execute(command);
+            } catch (RejectedExecutionException e) {
+                queued.decrementAndGet();
+                reject();
+                sink.error(new PasswordHashingUnavailableException());
+                return;
+            }
+
+            sink.onCancel(() -> {
+                cancelled.set(true);
+                // Pool de hilos de plataforma: liberar el lugar en la cola si aún no empezó
+                if (executor instanceof ThreadPoolExecutor pool && pool.remove(command)) {
+                    queued.decrementAndGet();
+                }
+            });
+        });
+    }
+
+    private <T> void run(Timer timer, Callable<T> task, MonoSink<T> sink, AtomicBoolean cancelled) {
+        try {
+            if (running != null) {
+                running.acquireUninterruptibly();
+            }
+            // Sigue contando como en cola mientras espera el semáforo (hilos virtuales)
+            queued.decrementAndGet();
+            try {
+                if (cancelled.get()) {
+                    return;
+                }
+                active.incrementAndGet();
+                try {
+                    T result = timer.recordCallable(task);
+                    sink.success(result);
+                } finally {
+                    active.decrementAndGet();
+                }
+            } finally {
+                if (running != null) {
+                    running.release();
+                }
+            }
+        } catch (Exception e) {
+            sink.error(e);
+        } finally {
+            if (admission != null) {
+                admission.release();
+            }
+        }
+    }
+
+    /**
+     * Timer por operación. encode y matches se registran al construir; el
+     * resto (si aparece) una sola vez, en el primer uso.
+     */
+    private Timer timer(String operation) {
+        return timers.computeIfAbsent(operation, op -> Timer.builder("security.password.hashing")
+                .description("Latencia del hashing de contraseñas")
+                .tag("operation", op)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    private void reject() {
+        rejected.increment();
+        log.warn("Executor de hashing saturado, solicitud rechazada");
+    }
+
+    private static ThreadFactory platformThreadFactory() {
+        return Thread.ofPlatform()
+                .name("password-hashing-", 0)
+                .daemon(true)
+                .factory();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,60 @@
+package com.jdbayer.facturacion.infrastructure.security.hashing;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Component
+public class PasswordHashingProperties {
+
+    /**
+     * Hashes simultáneos. 0 = número de procesadores disponibles.
+     */
+    @Value("${security.password-hashing.parallelism:0}")
+    private int parallelism;
+
+    @Value("${security.password-hashing.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${security.password-hashing.virtual-threads:false}")
+    private boolean virtualThreads;
+
+    /**
+     * Algoritmo para los hashes nuevos: bcrypt o argon2id.
+     */
+    @Value("${security.password-hashing.algorithm:bcrypt}")
+    private String algorithm;
+
+    /**
+     * Latencia objetivo por hash (ms). El costo se calibra al arrancar para no superarla.
+     */
+    @Value("${security.password-hashing.latency-budget:250}")
+    private long latencyBudget;
+
+    @Value("${security.password-hashing.bcrypt.min-strength:10}")
+    private int bcryptMinStrength;
+
+    @Value("${security.password-hashing.bcrypt.max-strength:14}")
+    private int bcryptMaxStrength;
+
+    /**
+     * Memoria de Argon2id (KiB). 19456 = 19 MiB, mínimo recomendado por OWASP.
+     */
+    @Value("${security.password-hashing.argon2.memory:19456}")
+    private int argon2Memory;
+
+    @Value("${security.password-hashing.argon2.min-iterations:2}")
+    private int argon2MinIterations;
+
+    @Value("${security.password-hashing.argon2.max-iterations:10}")
+    private int argon2MaxIterations;
+
+    public PasswordHashAlgorithm getHashAlgorithm() {
+        return PasswordHashAlgorithm.from(algorithm);
+    }
+
+    public int getEffectiveParallelism() {
+        return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+}
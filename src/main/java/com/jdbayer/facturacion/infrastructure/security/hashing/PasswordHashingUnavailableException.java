@@ -0,0 +1,20 @@
+package com.jdbayer.facturacion.infrastructure.security.hashing;
+
+import java.io.Serial;
+
+/**
+ * Se lanza cuando el executor de hashing está saturado (cola llena).
+ *
+ * Se rechaza de inmediato en lugar de encolar sin límite: el cliente recibe
+ * 503 con Retry-After y el nodo no acumula trabajo que no puede atender.
+ */
+public class PasswordHashingUnavailableException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 4416029872143379502L;
+
+    public PasswordHashingUnavailableException() {
+        // Sin stack trace: es un rechazo esperado bajo carga
+        super("El servicio está ocupado, intente nuevamente en unos segundos", null, false, false);
+    }
+}
@@ -2,6 +2,12 @@ package com.jdbayer.facturacion.infrastructure.security.jwt;
 
 import com.jdbayer.facturacion.domain.exception.UserNotFoundException;
 import com.jdbayer.facturacion.infrastructure.security.service.TokenManagementService;
+import com.jdbayer.facturacion.infrastructure.observability.ReactiveObservations;
+import com.jdbayer.facturacion.infrastructure.security.AdminProperties;
+import com.jdbayer.facturacion.infrastructure.logging.LogThrottle;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.jspecify.annotations.NullMarked;
 import org.slf4j.Logger;
@@ -18,37 +24,57 @@ import org.springframework.web.server.WebFilterChain;
 import reactor.core.publisher.Mono;
 
 import java.util.Collections;
-import java.util.UUID;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Filtro WebFlux para autenticación basada en JWT.
  *
  * Este filtro se ejecuta en cada request y:
  * 1. Extrae el token JWT del header Authorization
- * 2. Verifica que no esté en la blacklist (logout)
- * 3. Valida el token
- * 4. Extrae la información del usuario
+ * 2. Valida el token y extrae la información del usuario (un solo parseo)
+ * 3. Verifica que no esté en la blacklist (logout)
+ * 4. Verifica que no haya sido revocado por época (TokenEpochCache)
  * 5. Establece el contexto de seguridad de Spring
  *
  * Flujo:
- * Request → JwtAuthenticationFilter → Blacklist Check → Validar Token → Set SecurityContext → Controller
+ * Request → JwtAuthenticationFilter → Validar Token → Blacklist Check → Epoch Check → Set SecurityContext → Controller
+ *
+ * La consulta a la blacklist se observa (timer + span) como
+ * security.blacklist.check{result=hit|miss, outcome}.
  */
 @Component
 @Slf4j
 public class JwtAuthenticationFilter implements WebFilter {
 
+    private static final List<SimpleGrantedAuthority> AUTHORITIES =
+            Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"));
+    private static final List<SimpleGrantedAuthority> ADMIN_AUTHORITIES =
+            List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_ADMIN"));
+    private static final int ERROR_LOGS_PER_SECOND = 10;
+
     private final JwtService jwtService;
     private final JwtProperties jwtProperties;
     private final TokenManagementService tokenManagementService;
+    private final TokenEpochCache tokenEpochCache;
+    private final ObservationRegistry observationRegistry;
+    private final AdminProperties adminProperties;
+    private final LogThrottle errorLogThrottle = new LogThrottle(ERROR_LOGS_PER_SECOND);
 
     public JwtAuthenticationFilter(
             JwtService jwtService,
             JwtProperties jwtProperties,
-            TokenManagementService tokenManagementService
+            TokenManagementService tokenManagementService,
+            TokenEpochCache tokenEpochCache,
+            ObservationRegistry observationRegistry,
+            AdminProperties adminProperties
     ) {
         this.jwtService = jwtService;
         this.jwtProperties = jwtProperties;
         this.tokenManagementService = tokenManagementService;
+        this.tokenEpochCache = tokenEpochCache;
+        this.observationRegistry = observationRegistry;
+        this.adminProperties = adminProperties;
     }
 
     @Override
@@ -70,65 +96,107 @@ public class JwtAuthenticationFilter implements WebFilter {
             return chain.filter(exchange);
         }
 
-        // Validar y procesar token
+        // Validar y procesar token. Si no es válido se continúa sin autenticación
+        // y Spring Security responde 401 en las rutas protegidas.
         return validateAndSetAuthentication(token)
-                .flatMap(authentication ->
-                        chain.filter(exchange)
-                                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication))
-                );
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(authentication -> authentication
+                        .map(auth -> chain.filter(exchange)
+                                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(auth)))
+                        .orElseGet(() -> chain.filter(exchange)));
     }
 
     /**
      * Valida el token y crea el objeto Authentication.
      *
-     * Ahora también verifica que el token no esté en la blacklist.
+     * El token se parsea y verifica una sola vez; la vista verificada se guarda
+     * como "details" del Authentication. La firma se verifica antes de consultar
+     * la blacklist para no ir a la BD con tokens inválidos.
      */
     private Mono<UsernamePasswordAuthenticationToken> validateAndSetAuthentication(String token) {
-        // Primero verificar si el token está blacklisted
-        return tokenManagementService.isTokenBlacklisted(token)
-                .flatMap(isBlacklisted -> {
-                    if (isBlacklisted) {
-                        log.warn("Token JWT está en la blacklist (logout)");
-                        return Mono.empty();
-                    }
-
-                    // Continuar con validación normal
-                    return Mono.fromCallable(() -> {
-                        if (!jwtService.validateToken(token)) {
-                            log.warn("Token JWT inválido o expirado");
-                            throw new IllegalStateException("Invalid JWT");
-                        }
-
-                        // Extraer información del usuario del token
-                        UUID userId = jwtService.extractUserId(token);
-                        String email = jwtService.extractEmail(token);
-
-                        log.debug("Token JWT válido para usuario: {} ({})", email, userId);
-
-                        // Crear Authentication con autoridades
-                        var authorities = Collections.singletonList(
-                                new SimpleGrantedAuthority("ROLE_USER")
-                        );
-
-                        return new UsernamePasswordAuthenticationToken(
-                                userId,
-                                token,
-                                authorities
-                        );
-                    });
-                })
+        return Mono.fromCallable(() -> jwtService.verifyToken(token))
+                .flatMap(verifiedToken -> observedBlacklistCheck(token, verifiedToken)
+                        .flatMap(isBlacklisted -> {
+                            if (isBlacklisted) {
+                                log.warn("Token JWT está en la blacklist (logout)");
+                                return Mono.empty();
+                            }
+                            return tokenEpochCache.isCurrent(verifiedToken);
+                        })
+                        .flatMap(isCurrent -> {
+                            if (!isCurrent) {
+                                log.warn("Token JWT revocado (época anterior) para usuario: {}",
+                                        verifiedToken.userId());
+                                return Mono.empty();
+                            }
+
+                            log.debug("Token JWT válido para usuario: {} ({})",
+                                    verifiedToken.email(), verifiedToken.userId());
+
+                            return Mono.just(createAuthentication(token, verifiedToken));
+                        }))
                 .onErrorResume(e -> {
-                    log.error("Error al procesar token JWT: {}", e.getMessage());
+                    logValidationError(e);
                     return Mono.empty();
                 });
     }
 
+    /**
+     * Un token mal formado, vencido o con firma inválida es un error de
+     * cliente esperado (DEBUG). Cualquier otro error (BD, R2DBC en la
+     * blacklist o la época) se registra como ERROR, limitado por segundo:
+     * el request sigue sin autenticar y GlobalExceptionHandler no lo ve.
+     */
+    private void logValidationError(Throwable e) {
+        if (e instanceof JwtException || e instanceof IllegalArgumentException) {
+            log.debug("Error al procesar token JWT: {}", e.getMessage());
+            return;
+        }
+        long suppressed = errorLogThrottle.tryAcquire();
+        if (suppressed > 0) {
+            log.error("Error inesperado al validar token JWT: {} ({} similares omitidos)", e.toString(), suppressed);
+        } else if (suppressed == 0) {
+            log.error("Error inesperado al validar token JWT: {}", e.toString(), e);
+        }
+    }
+
+    /**
+     * Consulta la blacklist dentro de una observación. Casi siempre la resuelve
+     * el índice en memoria; los picos indican consultas a la BD.
+     */
+    private Mono<Boolean> observedBlacklistCheck(String token, VerifiedToken verifiedToken) {
+        return ReactiveObservations.observe(
+                () -> Observation.createNotStarted("security.blacklist.check", observationRegistry)
+                        .contextualName("blacklist check")
+                        .lowCardinalityKeyValue("result", "none"),
+                observation -> tokenManagementService.isTokenBlacklisted(token, verifiedToken.expiresAt())
+                        .doOnNext(blacklisted -> observation.lowCardinalityKeyValue("result", blacklisted ? "hit" : "miss")));
+    }
+
+    /**
+     * Crea el Authentication con el userId como principal y el token verificado como details.
+     *
+     * Los emails de security.admin.emails reciben además ROLE_ADMIN.
+     */
+    private UsernamePasswordAuthenticationToken createAuthentication(String token, VerifiedToken verifiedToken) {
+        var authentication = new UsernamePasswordAuthenticationToken(
+                verifiedToken.userId(),
+                token,
+                adminProperties.isAdmin(verifiedToken.email()) ? ADMIN_AUTHORITIES : AUTHORITIES
+        );
+        authentication.setDetails(verifiedToken);
+        return authentication;
+    }
+
     /**
      * Extrae el token JWT del header Authorization.
      *
      * Formato esperado: "Bearer <token>"
+     *
+     * Visible en el paquete para JwtAuthenticationFilterBenchmark.
      */
-    private String extractToken(ServerHttpRequest request) {
+    String extractToken(ServerHttpRequest request) {
         String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
 
         if (authHeader != null && authHeader.startsWith(jwtProperties.getHeaderPrefix())) {
@@ -140,8 +208,10 @@ public class JwtAuthenticationFilter implements WebFilter {
 
     /**
      * Verifica si una ruta es pública y no requiere autenticación.
+     *
+     * Visible en el paquete para JwtAuthenticationFilterBenchmark.
      */
-    private boolean isPublicPath(String path) {
+    boolean isPublicPath(String path) {
         return path.startsWith("/api/auth/") ||
                 path.equals("/actuator/health") ||
                 path.equals("/actuator/info") ||
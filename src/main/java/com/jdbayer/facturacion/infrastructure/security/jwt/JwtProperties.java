@@ -23,4 +23,16 @@ public class JwtProperties {
     @Value("${jwt.expiration}")
     private long expiration;
 
+    @Value("${jwt.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    @Value("${jwt.cache.ttl:900000}")
+    private long cacheTtl;
+
+    @Value("${jwt.epoch-cache.max-size:100000}")
+    private long epochCacheMaxSize;
+
+    @Value("${jwt.epoch-cache.ttl:300000}")
+    private long epochCacheTtl;
+
 }
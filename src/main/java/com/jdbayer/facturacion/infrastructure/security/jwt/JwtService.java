@@ -59,6 +59,21 @@ public interface JwtService {
      */
     boolean validateToken(String token);
 
+    /**
+     * Verifica el token una sola vez (firma, expiración y formato) y retorna
+     * una vista inmutable con sus datos.
+     *
+     * Es la operación recomendada en caminos calientes: reemplaza la secuencia
+     * validateToken + extractUserId + extractEmail, que parsea y verifica la
+     * firma tres veces.
+     *
+     * @param token Token JWT a verificar
+     * @return VerifiedToken con subject, email, iat, exp y claims
+     * @throws io.jsonwebtoken.JwtException si el token es inválido o expiró
+     * @throws IllegalArgumentException si el token está vacío o el subject no es un UUID
+     */
+    VerifiedToken verifyToken(String token);
+
     /**
      * Extrae el ID del usuario del token JWT.
      *
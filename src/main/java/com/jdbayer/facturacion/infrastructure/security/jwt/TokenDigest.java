@@ -0,0 +1,102 @@
+package com.jdbayer.facturacion.infrastructure.security.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Objects;
+
+/**
+ * Digest SHA-256 (32 bytes) de un token JWT.
+ *
+ * Se usa como clave compacta y de tamaño fijo en lugar del token completo
+ * (cientos de bytes), tanto en caches en memoria como en la clave primaria
+ * (bytea) de las tablas de tokens.
+ *
+ * Es inmutable: el arreglo interno nunca se expone sin copiarlo.
+ */
+public final class TokenDigest {
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final byte[] value;
+    private final int hash;
+
+    private TokenDigest(byte[] value) {
+        this.value = value;
+        this.hash = Arrays.hashCode(value);
+    }
+
+    /**
+     * Calcula el digest SHA-256 del token.
+     */
+    public static TokenDigest of(String token) {
+        Objects.requireNonNull(token, "El token no puede ser nulo");
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return new TokenDigest(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 es obligatorio en toda JVM
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    /**
+     * Reconstruye un digest a partir de su representación hexadecimal.
+     */
+    public static TokenDigest fromHex(String hex) {
+        byte[] bytes = HEX.parseHex(hex);
+        if (bytes.length != 32) {
+            throw new IllegalArgumentException("Digest de token inválido");
+        }
+        return new TokenDigest(bytes);
+    }
+
+    /**
+     * Reconstruye un digest a partir de sus 32 bytes (por ejemplo, leídos de la BD).
+     */
+    public static TokenDigest fromBytes(byte[] bytes) {
+        Objects.requireNonNull(bytes, "El digest no puede ser nulo");
+        if (bytes.length != 32) {
+            throw new IllegalArgumentException("Digest de token inválido");
+        }
+        return new TokenDigest(bytes.clone());
+    }
+
+    /**
+     * Retorna una copia de los 32 bytes del digest.
+     */
+    public byte[] bytes() {
+        return value.clone();
+    }
+
+    /**
+     * Retorna el byte en la posición indicada sin copiar el arreglo.
+     */
+    public byte byteAt(int index) {
+        return value[index];
+    }
+
+    public String toHex() {
+        return HEX.formatHex(value);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TokenDigest that = (TokenDigest) o;
+        return hash == that.hash && Arrays.equals(value, that.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "TokenDigest{" + toHex() + '}';
+    }
+}
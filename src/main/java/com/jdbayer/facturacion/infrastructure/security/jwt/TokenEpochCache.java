@@ -0,0 +1,97 @@
+package com.jdbayer.facturacion.infrastructure.security.jwt;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jdbayer.facturacion.infrastructure.cache.CacheInvalidationListener;
+import com.jdbayer.facturacion.infrastructure.persistence.repository.R2dbcUserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Cache de la época de tokens de cada usuario (security.users.token_epoch).
+ *
+ * Cada access token lleva la época vigente al emitirse (claim "ver"). Al
+ * incrementar la época se revocan todos los tokens anteriores del usuario con
+ * una sola actualización, en lugar de una fila de blacklist por token.
+ *
+ * - La primera consulta de un usuario va a la BD; las siguientes, a memoria
+ * - Consultas concurrentes del mismo usuario comparten la misma carga
+ * - Las revocaciones de otros nodos llegan por {@link com.jdbayer.facturacion.infrastructure.cache.CacheInvalidationBus}
+ * - El TTL (jwt.epoch-cache.ttl) acota cuánto puede durar un valor obsoleto
+ *   si se pierde una notificación
+ *
+ * Un usuario inexistente tiene época infinita: todos sus tokens están revocados.
+ */
+@Component
+public class TokenEpochCache implements CacheInvalidationListener {
+
+    private static final long REVOKED = Long.MAX_VALUE;
+
+    private final AsyncCache<UUID, Long> cache;
+    private final R2dbcUserRepository userRepository;
+
+    public TokenEpochCache(
+            R2dbcUserRepository userRepository,
+            JwtProperties jwtProperties,
+            MeterRegistry meterRegistry
+    ) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(jwtProperties.getEpochCacheMaxSize())
+                .expireAfterWrite(Duration.ofMillis(jwtProperties.getEpochCacheTtl()))
+                .recordStats()
+                .buildAsync();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.token-epochs");
+    }
+
+    /**
+     * Indica si el token fue emitido en la época vigente del usuario.
+     *
+     * @param token Token ya verificado
+     * @return Mono<Boolean> - false si el token fue revocado
+     */
+    public Mono<Boolean> isCurrent(VerifiedToken token) {
+        return currentEpoch(token.userId())
+                .map(epoch -> token.tokenEpoch() >= epoch);
+    }
+
+    /**
+     * Obtiene la época vigente del usuario (desde memoria o la BD).
+     */
+    public Mono<Long> currentEpoch(UUID userId) {
+        CompletableFuture<Long> epoch = cache.get(userId, (id, executor) ->
+                userRepository.findTokenEpochById(id)
+                        .defaultIfEmpty(REVOKED)
+                        .toFuture()
+        );
+        // La carga es compartida: cancelar un request no debe cancelarla
+        return Mono.fromFuture(epoch, true);
+    }
+
+    /**
+     * Registra la nueva época tras una revocación en este nodo.
+     */
+    public void update(UUID userId, long epoch) {
+        cache.put(userId, CompletableFuture.completedFuture(epoch));
+    }
+
+    /**
+     * Otro nodo modificó o revocó al usuario: recargar su época.
+     */
+    @Override
+    public void onUserInvalidated(UUID userId) {
+        cache.synchronous().invalidate(userId);
+    }
+
+    @Override
+    public Mono<Void> onResync() {
+        return Mono.fromRunnable(() -> cache.synchronous().invalidateAll());
+    }
+}
@@ -0,0 +1,64 @@
+package com.jdbayer.facturacion.infrastructure.security.jwt;
+
+import io.jsonwebtoken.Claims;
+
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Vista inmutable de un token JWT cuya firma y expiración ya fueron verificadas.
+ *
+ * Se obtiene con {@link JwtService#verifyToken(String)} y evita volver a parsear
+ * el token para leer cada claim por separado. El filtro JWT la guarda como
+ * "details" del Authentication para que el resto del request la reutilice.
+ *
+ * @param userId     ID del usuario (claim sub)
+ * @param email      Email del usuario (claim email, null en refresh tokens)
+ * @param issuedAt   Fecha de emisión (claim iat)
+ * @param expiresAt  Fecha de expiración (claim exp)
+ * @param tokenEpoch Época de tokens del usuario al emitirse (claim ver, 0 si no existe)
+ * @param claims     Todos los claims del token
+ */
+public record VerifiedToken(
+        UUID userId,
+        String email,
+        Instant issuedAt,
+        Instant expiresAt,
+        long tokenEpoch,
+        Claims claims
+) {
+
+    /**
+     * Claim con la época de tokens del usuario (ver {@link TokenEpochCache}).
+     */
+    public static final String TOKEN_EPOCH_CLAIM = "ver";
+
+    public VerifiedToken {
+        Objects.requireNonNull(userId, "El subject del token es obligatorio");
+        Objects.requireNonNull(expiresAt, "La expiración del token es obligatoria");
+        Objects.requireNonNull(claims, "Los claims del token son obligatorios");
+    }
+
+    /**
+     * Construye la vista verificada a partir de los claims ya validados por jjwt.
+     */
+    public static VerifiedToken from(Claims claims) {
+        Number tokenEpoch = claims.get(TOKEN_EPOCH_CLAIM, Number.class);
+        return new VerifiedToken(
+                UUID.fromString(claims.getSubject()),
+                claims.get("email", String.class),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null,
+                tokenEpoch != null ? tokenEpoch.longValue() : 0L,
+                claims
+        );
+    }
+
+    /**
+     * Indica si el token ya expiró en el instante dado.
+     */
+    public boolean isExpiredAt(Instant now) {
+        return !now.isBefore(expiresAt);
+    }
+}
@@ -0,0 +1,114 @@
+package com.jdbayer.facturacion.infrastructure.security.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.jdbayer.facturacion.infrastructure.cache.CacheInvalidationListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Cache acotado de tokens JWT ya verificados.
+ *
+ * Los clientes reutilizan el mismo access token durante horas; este cache evita
+ * repetir el decode base64, el parseo de claims y la verificación HMAC en cada
+ * request.
+ *
+ * Características:
+ * - La clave es el digest SHA-256 del token (no el token completo)
+ * - Tamaño máximo y TTL configurables (jwt.cache.max-size, jwt.cache.ttl)
+ * - Cada entrada expira como máximo en el exp del propio token
+ * - Métricas de hits, misses y evictions (cache.* con cache=jwt.verified-tokens)
+ *
+ * El cache solo guarda el resultado de la verificación criptográfica: la
+ * blacklist se sigue consultando en cada request, y al hacer logout la entrada
+ * se elimina con {@link #invalidate(String)}.
+ */
+@Component
+public class VerifiedTokenCache implements CacheInvalidationListener {
+
+    private final Cache<TokenDigest, VerifiedToken> cache;
+
+    public VerifiedTokenCache(JwtProperties jwtProperties, MeterRegistry meterRegistry) {
+        long ttlNanos = TimeUnit.MILLISECONDS.toNanos(jwtProperties.getCacheTtl());
+
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(jwtProperties.getCacheMaxSize())
+                .expireAfter(new TokenExpiry(ttlNanos))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.verified-tokens");
+    }
+
+    /**
+     * Retorna el token verificado desde el cache o lo verifica con la función dada.
+     *
+     * Si la verificación lanza una excepción, no se guarda nada en el cache.
+     *
+     * @param token    Token JWT
+     * @param verifier Función que verifica el token (firma, expiración, formato)
+     * @return VerifiedToken vigente
+     */
+    public VerifiedToken get(String token, Function<String, VerifiedToken> verifier) {
+        return cache.get(TokenDigest.of(token), digest -> verifier.apply(token));
+    }
+
+    /**
+     * Elimina un token del cache (por ejemplo, al agregarlo a la blacklist).
+     */
+    public void invalidate(String token) {
+        cache.invalidate(TokenDigest.of(token));
+    }
+
+    /**
+     * Elimina un token del cache a partir de su digest.
+     */
+    public void invalidate(TokenDigest digest) {
+        cache.invalidate(digest);
+    }
+
+    /**
+     * Elimina el token blacklisted por otro nodo.
+     */
+    @Override
+    public void onTokenBlacklisted(TokenDigest digest, Instant expiresAt) {
+        invalidate(digest);
+    }
+
+    /**
+     * Vacía el cache completo.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Política de expiración: el menor entre el TTL configurado y el exp del token.
+     */
+    private record TokenExpiry(long ttlNanos) implements Expiry<TokenDigest, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(TokenDigest key, VerifiedToken value, long currentTime) {
+            long untilExp = TimeUnit.MILLISECONDS.toNanos(
+                    value.expiresAt().toEpochMilli() - Instant.now().toEpochMilli()
+            );
+            return Math.max(0, Math.min(ttlNanos, untilExp));
+        }
+
+        @Override
+        public long expireAfterUpdate(TokenDigest key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(TokenDigest key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
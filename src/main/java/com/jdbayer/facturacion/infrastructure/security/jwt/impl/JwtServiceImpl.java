@@ -3,15 +3,21 @@ package com.jdbayer.facturacion.infrastructure.security.jwt.impl;
 import com.jdbayer.facturacion.domain.model.User;
 import com.jdbayer.facturacion.infrastructure.security.jwt.JwtProperties;
 import com.jdbayer.facturacion.infrastructure.security.jwt.JwtService;
+import com.jdbayer.facturacion.infrastructure.security.jwt.VerifiedToken;
+import com.jdbayer.facturacion.infrastructure.security.jwt.VerifiedTokenCache;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -23,6 +29,15 @@ import java.util.function.Function;
  *
  * Usa HMAC-SHA256 (HS256) para firmar los tokens.
  * La clave secreta debe tener al menos 256 bits.
+ *
+ * El JwtParser es inmutable y thread-safe, por lo que se construye una sola
+ * vez en el constructor y se reutiliza en cada verificación.
+ *
+ * Los tokens verificados se guardan en {@link VerifiedTokenCache} para no
+ * repetir la verificación HMAC mientras el mismo token se sigue usando.
+ *
+ * Métricas: security.jwt{operation=sign|verify}. verify mide solo el parseo
+ * y la verificación HMAC reales, no los aciertos de la caché.
  */
 @Service
 public class JwtServiceImpl implements JwtService {
@@ -31,13 +46,32 @@ public class JwtServiceImpl implements JwtService {
 
     private final JwtProperties jwtProperties;
     private final SecretKey secretKey;
+    private final JwtParser jwtParser;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final Timer signTimer;
+    private final Timer verifyTimer;
 
-    public JwtServiceImpl(JwtProperties jwtProperties) {
+    public JwtServiceImpl(JwtProperties jwtProperties, VerifiedTokenCache verifiedTokenCache, MeterRegistry meterRegistry) {
         this.jwtProperties = jwtProperties;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.signTimer = jwtTimer("sign", meterRegistry);
+        this.verifyTimer = jwtTimer("verify", meterRegistry);
         // Generar la clave secreta a partir del string de configuración
         this.secretKey = Keys.hmacShaKeyFor(
                 jwtProperties.getSecret().getBytes(StandardCharsets.UTF_8)
         );
+        this.jwtParser = Jwts.parser()
+                .verifyWith(secretKey)
+                .build();
+    }
+
+    private static Timer jwtTimer(String operation, MeterRegistry meterRegistry) {
+        return Timer.builder("security.jwt")
+                .description("Latencia de firma y verificación de JWT")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(Duration.ofMillis(50))
+                .register(meterRegistry);
     }
 
     @Override
@@ -48,6 +82,7 @@ public class JwtServiceImpl implements JwtService {
         claims.put("email", user.getEmail().value());
         claims.put("name", user.getName().value());
         claims.put("active", user.isActive());
+        claims.put(VerifiedToken.TOKEN_EPOCH_CLAIM, user.getTokenEpoch());
 
         return createToken(claims, user.getId().toString(), jwtProperties.getExpiration());
     }
@@ -69,57 +104,60 @@ public class JwtServiceImpl implements JwtService {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + expirationTime);
 
-        return Jwts.builder()
+        return signTimer.record(() -> Jwts.builder()
                     .claims(claims)
                     .subject(subject)
                     .issuedAt(now)
                     .expiration(expiryDate)
                     .signWith(secretKey)
-                    .compact();
+                    .compact());
     }
 
+    /**
+     * Un token inválido es entrada del cliente, no un fallo del servidor: se
+     * registra en DEBUG para que un flood de tokens falsos no inunde el log.
+     */
     @Override
     public boolean validateToken(String token) {
         try {
-            Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token);
+            extractAllClaims(token);
 
             log.debug("Token JWT válido");
             return true;
         } catch (io.jsonwebtoken.security.SecurityException e) {
-            log.error("Firma JWT inválida: {}", e.getMessage());
+            log.debug("Firma JWT inválida: {}", e.getMessage());
         } catch (io.jsonwebtoken.MalformedJwtException e) {
-            log.error("Token JWT mal formado: {}", e.getMessage());
+            log.debug("Token JWT mal formado: {}", e.getMessage());
         } catch (io.jsonwebtoken.ExpiredJwtException e) {
-            log.error("Token JWT expirado: {}", e.getMessage());
+            log.debug("Token JWT expirado: {}", e.getMessage());
         } catch (io.jsonwebtoken.UnsupportedJwtException e) {
-            log.error("Token JWT no soportado: {}", e.getMessage());
+            log.debug("Token JWT no soportado: {}", e.getMessage());
         } catch (IllegalArgumentException e) {
-            log.error("Claims JWT vacíos: {}", e.getMessage());
+            log.debug("Claims JWT vacíos: {}", e.getMessage());
         }
         return false;
     }
 
+    @Override
+    public VerifiedToken verifyToken(String token) {
+        return verifiedTokenCache.get(token, t -> VerifiedToken.from(extractAllClaims(t)));
+    }
+
     @Override
     public UUID extractUserId(String token) {
-        String userId = extractClaim(token, Claims::getSubject);
-        return UUID.fromString(userId);
+        return verifyToken(token).userId();
     }
 
     @Override
     public String extractEmail(String token) {
-        return extractClaim(token, claims -> claims.get("email", String.class));
+        return verifyToken(token).email();
     }
 
     @Override
     public Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
+        return verifyTimer.record(() -> jwtParser
                 .parseSignedClaims(token)
-                .getPayload();
+                .getPayload());
     }
 
     @Override
@@ -140,4 +178,4 @@ public class JwtServiceImpl implements JwtService {
         final Claims claims = extractAllClaims(token);
         return claimsResolver.apply(claims);
     }
-}
\ No newline at end of file
+}
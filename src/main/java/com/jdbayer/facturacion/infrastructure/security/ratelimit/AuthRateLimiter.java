@@ -0,0 +1,127 @@
+package com.jdbayer.facturacion.infrastructure.security.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limiting de los endpoints públicos de autenticación.
+ *
+ * Cada login fallido cuesta una consulta a la BD y una verificación BCrypt,
+ * así que un ataque de credential stuffing se convierte en una denegación
+ * de servicio por CPU. Los límites se evalúan antes de cualquier trabajo:
+ * - Login: por email (protege la cuenta) y por IP (protege el nodo)
+ * - Registro: por IP
+ *
+ * Métricas:
+ * - security.rate-limit.rejected: solicitudes rechazadas, por endpoint y clave
+ * - security.rate-limit.keys: claves en memoria, por limitador
+ */
+@Component
+@Slf4j
+public class AuthRateLimiter {
+
+    private final boolean enabled;
+    private final RateLimiter loginByEmail;
+    private final RateLimiter loginByIp;
+    private final RateLimiter registerByIp;
+
+    private final Counter loginEmailRejected;
+    private final Counter loginIpRejected;
+    private final Counter registerIpRejected;
+
+    public AuthRateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+
+        Duration idleExpiry = Duration.ofMillis(properties.getIdleExpiry());
+        this.loginByEmail = new RateLimiter(properties.getLoginEmailCapacity(),
+                Duration.ofMillis(properties.getLoginEmailRefillPeriod()), properties.getMaxKeys(), idleExpiry);
+        this.loginByIp = new RateLimiter(properties.getLoginIpCapacity(),
+                Duration.ofMillis(properties.getLoginIpRefillPeriod()), properties.getMaxKeys(), idleExpiry);
+        this.registerByIp = new RateLimiter(properties.getRegisterIpCapacity(),
+                Duration.ofMillis(properties.getRegisterIpRefillPeriod()), properties.getMaxKeys(), idleExpiry);
+
+        this.loginEmailRejected = rejectedCounter(meterRegistry, "login", "email");
+        this.loginIpRejected = rejectedCounter(meterRegistry, "login", "ip");
+        this.registerIpRejected = rejectedCounter(meterRegistry, "register", "ip");
+
+        keysGauge(meterRegistry, "login", "email", loginByEmail);
+        keysGauge(meterRegistry, "login", "ip", loginByIp);
+        keysGauge(meterRegistry, "register", "ip", registerByIp);
+    }
+
+    /**
+     * Verifica los límites de login.
+     *
+     * @return Mono vacío si se permite; error RateLimitExceededException si no
+     */
+    public Mono<Void> checkLogin(String email, String ipAddress) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+
+        long waitNanos = loginByIp.tryAcquire(ipAddress);
+        if (waitNanos > 0) {
+            return reject(loginIpRejected, "login", ipAddress, waitNanos);
+        }
+
+        waitNanos = loginByEmail.tryAcquire(normalizeEmail(email));
+        if (waitNanos > 0) {
+            return reject(loginEmailRejected, "login", email, waitNanos);
+        }
+
+        return Mono.empty();
+    }
+
+    /**
+     * Verifica el límite de registro.
+     *
+     * @return Mono vacío si se permite; error RateLimitExceededException si no
+     */
+    public Mono<Void> checkRegister(String ipAddress) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+
+        long waitNanos = registerByIp.tryAcquire(ipAddress);
+        if (waitNanos > 0) {
+            return reject(registerIpRejected, "register", ipAddress, waitNanos);
+        }
+
+        return Mono.empty();
+    }
+
+    private Mono<Void> reject(Counter counter, String endpoint, String key, long waitNanos) {
+        counter.increment();
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        log.debug("Rate limit excedido en {} para {}, reintentar en {}s", endpoint, key, retryAfterSeconds);
+        return Mono.error(new RateLimitExceededException(retryAfterSeconds));
+    }
+
+    private static String normalizeEmail(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String endpoint, String key) {
+        return Counter.builder("security.rate-limit.rejected")
+                .description("Solicitudes rechazadas por rate limiting")
+                .tag("endpoint", endpoint)
+                .tag("key", key)
+                .register(meterRegistry);
+    }
+
+    private static void keysGauge(MeterRegistry meterRegistry, String endpoint, String key, RateLimiter limiter) {
+        Gauge.builder("security.rate-limit.keys", limiter, RateLimiter::size)
+                .description("Claves con bucket activo")
+                .tag("endpoint", endpoint)
+                .tag("key", key)
+                .register(meterRegistry);
+    }
+}
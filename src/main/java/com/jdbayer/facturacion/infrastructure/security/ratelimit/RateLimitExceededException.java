@@ -0,0 +1,27 @@
+package com.jdbayer.facturacion.infrastructure.security.ratelimit;
+
+import lombok.Getter;
+
+import java.io.Serial;
+
+/**
+ * Se lanza cuando un cliente supera el límite de solicitudes de un endpoint.
+ */
+@Getter
+public class RateLimitExceededException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = -1856024981750262377L;
+
+    /**
+     * Segundos hasta que el cliente puede reintentar (header Retry-After).
+     */
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(long retryAfterSeconds) {
+        // Sin stack trace: es un rechazo esperado y frecuente bajo ataque
+        super("Demasiadas solicitudes, intente nuevamente en " + retryAfterSeconds + " segundos",
+                null, false, false);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,49 @@
+package com.jdbayer.facturacion.infrastructure.security.ratelimit;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Límites de /api/auth/login y /api/auth/register.
+ *
+ * Cada límite es un token bucket: capacity solicitudes en ráfaga, que se
+ * recuperan de forma continua a lo largo de refill-period (ms).
+ */
+@Getter
+@Component
+public class RateLimitProperties {
+
+    @Value("${security.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${security.rate-limit.login.email.capacity:5}")
+    private int loginEmailCapacity;
+
+    @Value("${security.rate-limit.login.email.refill-period:60000}")
+    private long loginEmailRefillPeriod;
+
+    @Value("${security.rate-limit.login.ip.capacity:20}")
+    private int loginIpCapacity;
+
+    @Value("${security.rate-limit.login.ip.refill-period:60000}")
+    private long loginIpRefillPeriod;
+
+    @Value("${security.rate-limit.register.ip.capacity:5}")
+    private int registerIpCapacity;
+
+    @Value("${security.rate-limit.register.ip.refill-period:60000}")
+    private long registerIpRefillPeriod;
+
+    /**
+     * Máximo de claves en memoria por limitador.
+     */
+    @Value("${security.rate-limit.max-keys:100000}")
+    private long maxKeys;
+
+    /**
+     * Tiempo sin actividad tras el cual se descarta el bucket de una clave (ms).
+     */
+    @Value("${security.rate-limit.idle-expiry:600000}")
+    private long idleExpiry;
+}
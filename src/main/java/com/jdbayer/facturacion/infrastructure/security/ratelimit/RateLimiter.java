@@ -0,0 +1,44 @@
+package com.jdbayer.facturacion.infrastructure.security.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * Rate limiter por clave con un token bucket por clave.
+ *
+ * Los buckets viven en un cache Caffeine (almacenamiento concurrente
+ * segmentado y acotado):
+ * - maximumSize: acota la memoria aunque un atacante rote claves (IPs, emails)
+ * - expireAfterAccess: las claves inactivas se descartan; un bucket inactivo
+ *   el tiempo suficiente estaría lleno de todos modos
+ */
+final class RateLimiter {
+
+    private final int capacity;
+    private final long refillPeriodNanos;
+    private final Cache<String, TokenBucket> buckets;
+
+    RateLimiter(int capacity, Duration refillPeriod, long maxKeys, Duration idleExpiry) {
+        this.capacity = capacity;
+        this.refillPeriodNanos = refillPeriod.toNanos();
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleExpiry)
+                .build();
+    }
+
+    /**
+     * @return 0 si se permite la solicitud; si no, nanosegundos hasta poder reintentar
+     */
+    long tryAcquire(String key) {
+        long now = System.nanoTime();
+        return buckets.get(key, k -> new TokenBucket(capacity, refillPeriodNanos, now))
+                .tryConsume(now);
+    }
+
+    long size() {
+        return buckets.estimatedSize();
+    }
+}
@@ -0,0 +1,52 @@
+package com.jdbayer.facturacion.infrastructure.security.ratelimit;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Token bucket sin locks.
+ *
+ * El estado (tokens disponibles, instante del último relleno) es inmutable
+ * y se reemplaza con compareAndSet: no hay synchronized ni contención de
+ * monitor aunque muchos requests golpeen la misma clave.
+ *
+ * El relleno es perezoso: se calcula al consumir a partir del tiempo
+ * transcurrido, sin tareas programadas.
+ */
+final class TokenBucket {
+
+    private record State(double tokens, long refilledAt) {
+    }
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final AtomicReference<State> state;
+
+    TokenBucket(int capacity, long refillPeriodNanos, long now) {
+        this.capacity = capacity;
+        this.tokensPerNano = (double) capacity / refillPeriodNanos;
+        this.state = new AtomicReference<>(new State(capacity, now));
+    }
+
+    /**
+     * Intenta consumir un token.
+     *
+     * @param now Instante actual (System.nanoTime)
+     * @return 0 si se consumió; si no, nanosegundos hasta que haya un token disponible
+     */
+    long tryConsume(long now) {
+        while (true) {
+            State current = state.get();
+            long elapsed = Math.max(0, now - current.refilledAt());
+            double available = Math.min(capacity, current.tokens() + elapsed * tokensPerNano);
+
+            if (available < 1) {
+                return (long) Math.ceil((1 - available) / tokensPerNano);
+            }
+
+            State next = new State(available - 1, Math.max(now, current.refilledAt()));
+            if (state.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
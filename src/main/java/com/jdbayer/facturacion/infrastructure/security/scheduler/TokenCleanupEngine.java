@@ -0,0 +1,193 @@
+package com.jdbayer.facturacion.infrastructure.security.scheduler;
+
+import com.jdbayer.facturacion.infrastructure.persistence.PostgresAdvisoryLock;
+import com.jdbayer.facturacion.infrastructure.persistence.partition.TokenPartitionMaintenance;
+import com.jdbayer.facturacion.infrastructure.persistence.repository.R2dbcBlacklistedTokenRepository;
+import com.jdbayer.facturacion.infrastructure.persistence.repository.R2dbcRefreshTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.r2dbc.spi.ConnectionFactory;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+/**
+ * Motor de limpieza de tokens expirados.
+ *
+ * Cada ejecución:
+ * 1. Toma un advisory lock de PostgreSQL: solo un nodo del cluster limpia a la vez
+ *    (los demás omiten la ejecución)
+ * 2. Mantiene las particiones (crea las futuras, elimina las expiradas)
+ * 3. Elimina las filas expiradas restantes en lotes acotados
+ *    (security.token-cleanup.batch-size) con pausas entre lotes
+ *
+ * Garantías:
+ * - No se superpone con una ejecución anterior del mismo nodo (se rechaza)
+ * - Al apagar, no se inician más lotes y se espera a que termine el actual
+ *
+ * Métricas:
+ * - security.token-cleanup.deleted: filas eliminadas, por tabla (avanza lote a lote)
+ * - security.token-cleanup.duration: duración de cada ejecución, por resultado
+ *   (completed, skipped, failed)
+ * - security.token-cleanup.lag: segundos desde la última ejecución completada
+ * - security.token-cleanup.running: 1 si hay una ejecución en curso
+ */
+@Component
+@Slf4j
+public class TokenCleanupEngine {
+
+    private static final String LOCK_NAME = "security.token_cleanup";
+
+    private final PostgresAdvisoryLock lock;
+    private final TokenPartitionMaintenance partitionMaintenance;
+    private final R2dbcRefreshTokenRepository refreshTokenRepository;
+    private final R2dbcBlacklistedTokenRepository blacklistedTokenRepository;
+    private final TokenCleanupProperties properties;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong lastCompletedAt = new AtomicLong(System.currentTimeMillis());
+    private volatile boolean stopping;
+    private volatile CountDownLatch currentRun = new CountDownLatch(0);
+
+    private final MeterRegistry meterRegistry;
+    private final Counter refreshTokensDeleted;
+    private final Counter blacklistedTokensDeleted;
+
+    public TokenCleanupEngine(
+            ConnectionFactory connectionFactory,
+            TokenPartitionMaintenance partitionMaintenance,
+            R2dbcRefreshTokenRepository refreshTokenRepository,
+            R2dbcBlacklistedTokenRepository blacklistedTokenRepository,
+            TokenCleanupProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.lock = new PostgresAdvisoryLock(connectionFactory, LOCK_NAME);
+        this.partitionMaintenance = partitionMaintenance;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.blacklistedTokenRepository = blacklistedTokenRepository;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+
+        this.refreshTokensDeleted = deletedCounter("refresh_tokens");
+        this.blacklistedTokensDeleted = deletedCounter("blacklisted_tokens");
+
+        Gauge.builder("security.token-cleanup.lag", lastCompletedAt,
+                        completedAt -> (System.currentTimeMillis() - completedAt.get()) / 1000.0)
+                .description("Segundos desde la última limpieza completada")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("security.token-cleanup.running", running, r -> r.get() ? 1 : 0)
+                .description("Indica si hay una limpieza en curso")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Inicia una limpieza en segundo plano.
+     *
+     * @return true si se inició; false si la anterior sigue en curso o la aplicación se está apagando
+     */
+    public boolean trigger() {
+        if (stopping) {
+            return false;
+        }
+        if (!running.compareAndSet(false, true)) {
+            log.warn("La limpieza de tokens anterior sigue en curso, se omite esta ejecución");
+            return false;
+        }
+
+        CountDownLatch done = new CountDownLatch(1);
+        currentRun = done;
+        Timer.Sample sample = Timer.start(meterRegistry);
+
+        lock.tryRun(cleanup())
+                .map(total -> "completed")
+                .defaultIfEmpty("skipped")
+                .onErrorResume(error -> {
+                    log.error("Error en la limpieza de tokens: {}", error.getMessage());
+                    return Mono.just("failed");
+                })
+                .doFinally(signal -> {
+                    running.set(false);
+                    done.countDown();
+                })
+                .subscribe(outcome -> {
+                    sample.stop(Timer.builder("security.token-cleanup.duration")
+                            .description("Duración de la limpieza de tokens")
+                            .tag("outcome", outcome)
+                            .register(meterRegistry));
+                    if ("completed".equals(outcome)) {
+                        lastCompletedAt.set(System.currentTimeMillis());
+                    } else if ("skipped".equals(outcome)) {
+                        log.debug("Limpieza de tokens en curso en otro nodo, se omite");
+                    }
+                });
+
+        return true;
+    }
+
+    private Mono<Long> cleanup() {
+        Instant now = Instant.now();
+        return partitionMaintenance.maintain()
+                .then(deleteExpired("refresh_tokens", refreshTokenRepository::deleteExpiredBatch,
+                        refreshTokensDeleted, now))
+                .flatMap(refreshDeleted -> deleteExpired("blacklisted_tokens",
+                        blacklistedTokenRepository::deleteExpiredBatch, blacklistedTokensDeleted, now)
+                        .map(blacklistDeleted -> refreshDeleted + blacklistDeleted));
+    }
+
+    /**
+     * Elimina las filas expiradas de una tabla lote a lote, hasta que un lote
+     * devuelve menos filas que el límite o la aplicación empieza a apagarse.
+     */
+    private Mono<Long> deleteExpired(
+            String table,
+            BiFunction<Instant, Integer, Mono<Integer>> deleteBatch,
+            Counter deleted,
+            Instant now
+    ) {
+        int batchSize = properties.getBatchSize();
+        Duration pause = Duration.ofMillis(properties.getBatchPause());
+
+        Mono<Integer> batch = Mono.defer(() -> deleteBatch.apply(now, batchSize))
+                .doOnNext(count -> {
+                    deleted.increment(count);
+                    log.debug("Lote de limpieza en {}: {} filas", table, count);
+                });
+
+        return batch
+                .expand(count -> count >= batchSize && !stopping
+                        ? Mono.delay(pause).then(batch)
+                        : Mono.empty())
+                .reduce(0L, (total, count) -> total + count)
+                .doOnNext(total -> log.info("Limpieza de {}: {} tokens expirados eliminados", table, total));
+    }
+
+    private Counter deletedCounter(String table) {
+        return Counter.builder("security.token-cleanup.deleted")
+                .description("Tokens expirados eliminados")
+                .tag("table", table)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Apagado ordenado: no inicia más lotes y espera a que termine el actual.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        stopping = true;
+        if (!currentRun.await(properties.getShutdownTimeout(), TimeUnit.MILLISECONDS)) {
+            log.warn("La limpieza de tokens no terminó antes del apagado");
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.jdbayer.facturacion.infrastructure.security.scheduler;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Component
+public class TokenCleanupProperties {
+
+    /**
+     * Filas eliminadas por sentencia DELETE.
+     */
+    @Value("${security.token-cleanup.batch-size:5000}")
+    private int batchSize;
+
+    /**
+     * Pausa entre lotes (ms), para no saturar la BD ni el WAL.
+     */
+    @Value("${security.token-cleanup.batch-pause:100}")
+    private long batchPause;
+
+    /**
+     * Tiempo máximo de espera al apagar para que termine el lote en curso (ms).
+     */
+    @Value("${security.token-cleanup.shutdown-timeout:30000}")
+    private long shutdownTimeout;
+}
@@ -1,7 +1,10 @@
 package com.jdbayer.facturacion.infrastructure.security.scheduler;
 
-import com.jdbayer.facturacion.infrastructure.security.service.TokenManagementService;
+import com.jdbayer.facturacion.infrastructure.security.statistics.TokenStatistics;
+import com.jdbayer.facturacion.infrastructure.security.statistics.TokenStatisticsCollector;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
@@ -9,66 +12,85 @@ import org.springframework.stereotype.Component;
  * Scheduler para tareas periódicas relacionadas con tokens.
  *
  * Ejecuta limpieza automática de tokens expirados en PostgreSQL.
+ * Las tablas de tokens están particionadas por día de expiración: la mayor
+ * parte de la limpieza consiste en eliminar particiones completas.
  */
 @Component
 @Slf4j
 public class TokenCleanupScheduler {
 
-    private final TokenManagementService tokenManagementService;
+    private final TokenCleanupEngine tokenCleanupEngine;
+    private final TokenStatisticsCollector tokenStatisticsCollector;
 
-    public TokenCleanupScheduler(TokenManagementService tokenManagementService) {
-        this.tokenManagementService = tokenManagementService;
+    public TokenCleanupScheduler(
+            TokenCleanupEngine tokenCleanupEngine,
+            TokenStatisticsCollector tokenStatisticsCollector
+    ) {
+        this.tokenCleanupEngine = tokenCleanupEngine;
+        this.tokenStatisticsCollector = tokenStatisticsCollector;
     }
 
     /**
-     * Limpia refresh tokens expirados cada 6 horas.
+     * Limpia tokens expirados cada hora.
      *
-     * Esto previene que la tabla crezca indefinidamente con tokens antiguos.
+     * TokenCleanupEngine mantiene las particiones y elimina el resto de filas
+     * expiradas en lotes. Solo un nodo del cluster ejecuta la limpieza a la vez,
+     * y una ejecución nunca se superpone con la anterior.
      */
-    @Scheduled(cron = "0 0 */6 * * *") // Cada 6 horas
-    public void cleanupExpiredRefreshTokens() {
-        log.info("Iniciando limpieza programada de refresh tokens expirados");
+    @Scheduled(cron = "${security.token-cleanup.cron:0 5 * * * *}") // Cada hora
+    public void cleanupExpiredTokens() {
+        log.info("Iniciando limpieza programada de tokens expirados");
+        tokenCleanupEngine.trigger();
+    }
 
-        tokenManagementService.cleanupExpiredRefreshTokens()
-                .doOnSuccess(count ->
-                        log.info("Limpieza completada: {} refresh tokens eliminados", count)
-                )
-                .doOnError(error ->
-                        log.error("Error en limpieza de refresh tokens: {}", error.getMessage())
-                )
-                .subscribe();
+    /**
+     * Ejecuta la limpieza al arrancar (asegura las particiones de los próximos
+     * días), sin esperar a la primera ejecución programada.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void cleanupExpiredTokensOnStartup() {
+        cleanupExpiredTokens();
     }
 
     /**
-     * Limpia tokens expirados de la blacklist cada 12 horas.
+     * Recalcula el snapshot de estadísticas de tokens.
      *
-     * Los tokens blacklisted solo necesitan estar en la lista hasta que expiren.
-     * Después de eso, no tiene sentido mantenerlos en la BD.
+     * Las métricas y /actuator/tokens leen el snapshot, nunca la BD.
      */
-    @Scheduled(cron = "0 0 */12 * * *") // Cada 12 horas
-    public void cleanupExpiredBlacklistedTokens() {
-        log.info("Iniciando limpieza programada de tokens blacklisted expirados");
-
-        tokenManagementService.cleanupExpiredBlacklistedTokens()
-                .doOnSuccess(count ->
-                        log.info("Limpieza completada: {} tokens blacklisted eliminados", count)
-                )
-                .doOnError(error ->
-                        log.error("Error en limpieza de tokens blacklisted: {}", error.getMessage())
-                )
-                .subscribe();
+    @Scheduled(
+            fixedDelayString = "${security.token-statistics.refresh-interval:300000}",
+            initialDelayString = "${security.token-statistics.initial-delay:60000}"
+    )
+    public void refreshTokenStatistics() {
+        tokenStatisticsCollector.refresh()
+                .subscribe(
+                        statistics -> log.debug("Estadísticas de tokens actualizadas: {} sesiones activas",
+                                statistics.activeRefreshTokens()),
+                        error -> log.error("Error al calcular estadísticas de tokens: {}", error.getMessage())
+                );
     }
 
     /**
      * Estadísticas de tokens cada día a medianoche.
      *
-     * Útil para monitoreo y debugging.
+     * Útil para monitoreo y debugging. Registra el último snapshot calculado.
      */
     @Scheduled(cron = "0 0 0 * * *") // Cada día a medianoche
     public void logTokenStatistics() {
-        log.info("Generando estadísticas de tokens...");
+        TokenStatistics statistics = tokenStatisticsCollector.current();
+        if (statistics.computedAt() == null) {
+            log.info("Estadísticas de tokens aún no calculadas");
+            return;
+        }
 
-        // Aquí puedes agregar lógica para generar estadísticas
-        // Por ejemplo: cantidad de tokens activos por usuario, etc.
+        log.info("Estadísticas de tokens ({}): {} refresh tokens activos, {} usados sin expirar, " +
+                        "{} en blacklist {}",
+                statistics.computedAt(),
+                statistics.activeRefreshTokens(),
+                statistics.usedRefreshTokens(),
+                statistics.blacklistedTokens(),
+                statistics.blacklistedByReason());
+        statistics.topUsers().forEach(user ->
+                log.info("Usuario {}: {} sesiones activas", user.userId(), user.sessions()));
     }
 }
\ No newline at end of file
@@ -1,14 +1,25 @@
 package com.jdbayer.facturacion.infrastructure.security.service;
 
 import com.jdbayer.facturacion.domain.model.User;
+import com.jdbayer.facturacion.infrastructure.cache.CacheInvalidationBus;
+import com.jdbayer.facturacion.infrastructure.cache.CachingUserRepository;
 import com.jdbayer.facturacion.infrastructure.persistence.entity.BlacklistedTokenEntity;
 import com.jdbayer.facturacion.infrastructure.persistence.entity.RefreshTokenEntity;
 import com.jdbayer.facturacion.infrastructure.persistence.repository.R2dbcBlacklistedTokenRepository;
 import com.jdbayer.facturacion.infrastructure.persistence.repository.R2dbcRefreshTokenRepository;
+import com.jdbayer.facturacion.infrastructure.persistence.repository.R2dbcUserRepository;
+import com.jdbayer.facturacion.infrastructure.security.blacklist.TokenBlacklistIndex;
 import com.jdbayer.facturacion.infrastructure.security.jwt.JwtProperties;
 import com.jdbayer.facturacion.infrastructure.security.jwt.JwtService;
+import com.jdbayer.facturacion.infrastructure.security.jwt.TokenDigest;
+import com.jdbayer.facturacion.infrastructure.security.jwt.TokenEpochCache;
+import com.jdbayer.facturacion.infrastructure.security.jwt.VerifiedToken;
+import com.jdbayer.facturacion.infrastructure.security.jwt.VerifiedTokenCache;
+import io.jsonwebtoken.JwtException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -34,17 +45,38 @@ public class TokenManagementService {
     private final R2dbcBlacklistedTokenRepository blacklistedTokenRepository;
     private final JwtService jwtService;
     private final JwtProperties jwtProperties;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenBlacklistIndex blacklistIndex;
+    private final CacheInvalidationBus invalidationBus;
+    private final R2dbcUserRepository userRepository;
+    private final TokenEpochCache tokenEpochCache;
+    private final CachingUserRepository userCache;
+    private final TransactionalOperator transactionalOperator;
 
     public TokenManagementService(
             R2dbcRefreshTokenRepository refreshTokenRepository,
             R2dbcBlacklistedTokenRepository blacklistedTokenRepository,
             JwtService jwtService,
-            JwtProperties jwtProperties
+            JwtProperties jwtProperties,
+            VerifiedTokenCache verifiedTokenCache,
+            TokenBlacklistIndex blacklistIndex,
+            CacheInvalidationBus invalidationBus,
+            R2dbcUserRepository userRepository,
+            TokenEpochCache tokenEpochCache,
+            CachingUserRepository userCache,
+            ReactiveTransactionManager transactionManager
     ) {
         this.refreshTokenRepository = refreshTokenRepository;
         this.blacklistedTokenRepository = blacklistedTokenRepository;
         this.jwtService = jwtService;
         this.jwtProperties = jwtProperties;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.blacklistIndex = blacklistIndex;
+        this.invalidationBus = invalidationBus;
+        this.userRepository = userRepository;
+        this.tokenEpochCache = tokenEpochCache;
+        this.userCache = userCache;
+        this.transactionalOperator = TransactionalOperator.create(transactionManager);
     }
 
     /**
@@ -61,9 +93,9 @@ public class TokenManagementService {
         // Generar el refresh token JWT
         String token = jwtService.generateRefreshToken(user);
 
-        // Calcular fecha de expiración
-        Instant expiresAt = Instant.now()
-                .plusMillis(jwtProperties.getRefreshExpiration());
+        // expires_at = claim exp del token: las búsquedas lo usan para podar
+        // particiones y mantiene único el token_hash (ver R2dbcRefreshTokenRepository)
+        Instant expiresAt = calculateTokenExpiration(token);
 
         // Crear entidad RefreshToken
         RefreshTokenEntity refreshToken = new RefreshTokenEntity(
@@ -84,56 +116,89 @@ public class TokenManagementService {
     }
 
     /**
-     * Valida un refresh token y lo marca como usado.
+     * Verifica la firma y la expiración de un refresh token, sin ir a la BD.
      *
-     * @param token Refresh token a validar
-     * @return Mono con el refresh token si es válido, error si no
+     * @param token Refresh token a verificar
+     * @return Vista verificada del token (su exp ubica la partición en la BD)
+     * @throws IllegalArgumentException si el token es inválido o expiró
      */
-    public Mono<RefreshTokenEntity> validateAndUseRefreshToken(String token) {
-        log.debug("Validando refresh token");
+    public VerifiedToken verifyRefreshToken(String token) {
+        try {
+            return jwtService.verifyToken(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.warn("Refresh token JWT inválido");
+            throw new IllegalArgumentException("Refresh token inválido");
+        }
+    }
 
-        // Buscar el token en PostgreSQL
-        return refreshTokenRepository.findById(token)
+    /**
+     * Rota un refresh token: consume el anterior y crea el nuevo en una sola
+     * transacción.
+     *
+     * El consumo es una sola sentencia (UPDATE ... RETURNING) que marca el
+     * token como usado de forma atómica: dos refresh concurrentes con el mismo
+     * token no pueden ganar ambos. Si el INSERT del nuevo falla, el UPDATE se
+     * revierte y el token anterior sigue vigente: el cliente puede reintentar
+     * sin perder la sesión.
+     *
+     * El anterior no se elimina: queda marcado como usado (used = true) hasta
+     * su expires_at, y lo borra el drop de la partición diaria o la limpieza
+     * por lotes. Mientras exista, presentarlo de nuevo entra por la detección
+     * de reutilización, que revoca todos los tokens del usuario.
+     *
+     * Solo cuando el UPDATE no encuentra la fila se vuelve a leer el token para
+     * distinguir el motivo (inexistente, expirado o reutilizado). Eso ocurre
+     * fuera de la transacción, así que la revocación no se revierte.
+     *
+     * @param oldToken Refresh token presentado por el cliente
+     * @param verifiedOldToken Vista verificada de oldToken ({@link #verifyRefreshToken(String)})
+     * @param user Usuario propietario
+     * @param ipAddress IP del cliente
+     * @param userAgent User agent del cliente
+     * @return Mono con el nuevo refresh token JWT, error si el anterior no es válido
+     */
+    public Mono<String> rotateRefreshToken(
+            String oldToken,
+            VerifiedToken verifiedOldToken,
+            User user,
+            String ipAddress,
+            String userAgent
+    ) {
+        Instant expiresAt = verifiedOldToken.expiresAt();
+        return refreshTokenRepository.consume(oldToken, expiresAt, Instant.now())
+                .doOnNext(consumed ->
+                        log.info("Refresh token validado y usado para usuario: {}", consumed.getEmail())
+                )
+                .flatMap(consumed -> createRefreshToken(user, ipAddress, userAgent))
+                .as(transactionalOperator::transactional)
+                .switchIfEmpty(Mono.defer(() -> rejectRefreshToken(oldToken, expiresAt)));
+    }
+
+    /**
+     * Determina por qué no se pudo consumir un refresh token y emite el error correspondiente.
+     */
+    private <T> Mono<T> rejectRefreshToken(String token, Instant expiresAt) {
+        return refreshTokenRepository.findByToken(token, expiresAt)
                 .switchIfEmpty(Mono.error(
                         new IllegalArgumentException("Refresh token inválido o expirado")
                 ))
                 .flatMap(refreshToken -> {
-                    // Verificar que no esté expirado
-                    if (refreshToken.isExpired()) {
-                        log.warn("Refresh token expirado para usuario: {}", refreshToken.getEmail());
-                        return refreshTokenRepository.deleteById(token)
-                                .then(Mono.error(
-                                        new IllegalArgumentException("Refresh token expirado")
-                                ));
-                    }
-
-                    // Verificar que no haya sido usado (detectar reutilización)
+                    // Detectar reutilización
                     if (Boolean.TRUE.equals(refreshToken.getUsed())) {
                         log.error("Intento de reutilización de refresh token para usuario: {}",
                                 refreshToken.getEmail());
-                        // Invalidar TODOS los refresh tokens del usuario por seguridad
+                        // Invalidar TODOS los tokens del usuario por seguridad
                         return invalidateAllUserTokens(refreshToken.getUserId(), "token_reuse_detected")
                                 .then(Mono.error(
                                         new SecurityException("Refresh token ya utilizado")
                                 ));
                     }
 
-                    // Validar el token JWT
-                    if (!jwtService.validateToken(token)) {
-                        log.warn("Refresh token JWT inválido");
-                        return refreshTokenRepository.deleteById(token)
-                                .then(Mono.error(
-                                        new IllegalArgumentException("Refresh token inválido")
-                                ));
-                    }
-
-                    // Marcar como usado
-                    return refreshTokenRepository.markAsUsed(token, Instant.now())
-                            .then(refreshTokenRepository.findById(token))
-                            .doOnSuccess(saved ->
-                                    log.info("Refresh token validado y usado para usuario: {}",
-                                            saved.getEmail())
-                            );
+                    log.warn("Refresh token expirado para usuario: {}", refreshToken.getEmail());
+                    return refreshTokenRepository.deleteByToken(token, expiresAt)
+                            .then(Mono.error(
+                                    new IllegalArgumentException("Refresh token expirado")
+                            ));
                 });
     }
 
@@ -158,9 +223,14 @@ public class TokenManagementService {
         // Calcular fecha de expiración del token
         Instant expiresAt = calculateTokenExpiration(token);
 
-        // Crear entrada en blacklist
+        // Sacar el token del cache de verificación antes de persistir, para que
+        // ningún request posterior lo reciba ya verificado desde memoria
+        TokenDigest digest = TokenDigest.of(token);
+        verifiedTokenCache.invalidate(digest);
+
+        // Crear entrada en blacklist (por digest, nunca el token completo)
         BlacklistedTokenEntity blacklistedToken = new BlacklistedTokenEntity(
-                token,
+                digest,
                 userId,
                 email,
                 reason,
@@ -168,22 +238,27 @@ public class TokenManagementService {
                 expiresAt
         );
 
-        // Guardar en PostgreSQL
+        // Guardar en PostgreSQL y avisar al resto de nodos
         return blacklistedTokenRepository.save(blacklistedToken)
-                .doOnSuccess(saved ->
-                        log.info("Token blacklisted para usuario: {} - Razón: {}", email, reason)
-                )
-                .then();
+                .doOnSuccess(saved -> {
+                    blacklistIndex.add(digest, expiresAt);
+                    log.info("Token blacklisted para usuario: {} - Razón: {}", email, reason);
+                })
+                .then(Mono.defer(() -> invalidationBus.publishTokenBlacklisted(digest, expiresAt)));
     }
 
     /**
      * Verifica si un token está en la blacklist.
      *
+     * Consulta el índice en memoria (filtro de Bloom + conjunto exacto), sin I/O
+     * en el caso común. Solo va a la BD mientras el índice no se ha cargado.
+     *
      * @param token Token a verificar
+     * @param expiresAt Expiración del token (claim exp)
      * @return Mono<Boolean> - true si está blacklisted
      */
-    public Mono<Boolean> isTokenBlacklisted(String token) {
-        return blacklistedTokenRepository.existsByToken(token);
+    public Mono<Boolean> isTokenBlacklisted(String token, Instant expiresAt) {
+        return blacklistIndex.isBlacklisted(token, expiresAt);
     }
 
     /**
@@ -192,31 +267,41 @@ public class TokenManagementService {
      * Útil para:
      * - Logout de todas las sesiones
      * - Cambio de contraseña
+     * - Desactivación del usuario
      * - Compromiso de seguridad
      *
+     * Los access tokens se revocan incrementando la época de tokens del usuario
+     * (una sola actualización, sin importar cuántos tokens haya emitidos).
+     *
      * @param userId ID del usuario
      * @param reason Razón de invalidación
      */
     public Mono<Void> invalidateAllUserTokens(UUID userId, String reason) {
         log.warn("Invalidando TODOS los tokens del usuario: {} - Razón: {}", userId, reason);
 
-        // Eliminar todos los refresh tokens
-        return refreshTokenRepository.deleteByUserId(userId)
+        // Revocar los access tokens emitidos y eliminar todos los refresh tokens
+        return userRepository.incrementTokenEpoch(userId)
+                .doOnNext(epoch -> {
+                    tokenEpochCache.update(userId, epoch);
+                    // El usuario cacheado tiene la época anterior
+                    userCache.evict(userId);
+                })
+                .then(refreshTokenRepository.deleteByUserId(userId))
                 .doOnSuccess(count ->
                         log.info("Eliminados {} refresh tokens para usuario: {}", count, userId)
                 )
-                .then();
+                .then(Mono.defer(() -> invalidationBus.publishUserInvalidated(userId)));
     }
 
     /**
      * Obtiene todas las sesiones activas de un usuario.
      *
      * @param userId ID del usuario
-     * @return Flux de refresh tokens activos
+     * @return Flux de refresh tokens activos (no usados ni expirados)
      */
     public Flux<RefreshTokenEntity> getUserActiveSessions(UUID userId) {
         return refreshTokenRepository.findByUserId(userId)
-                .filter(token -> !token.isExpired());
+                .filter(token -> !Boolean.TRUE.equals(token.getUsed()) && !token.isExpired());
     }
 
     /**
@@ -236,7 +321,8 @@ public class TokenManagementService {
      */
     public Mono<Void> revokeRefreshToken(String token) {
         log.debug("Revocando refresh token");
-        return refreshTokenRepository.deleteById(token);
+        return refreshTokenRepository.deleteByToken(token, calculateTokenExpiration(token))
+                .then();
     }
 
     /**
@@ -255,8 +341,11 @@ public class TokenManagementService {
     }
 
     /**
-     * Limpia refresh tokens expirados.
-     * Este método puede ser llamado por un scheduler periódico.
+     * Limpia refresh tokens expirados con DELETE.
+     *
+     * La limpieza periódica la hace TokenPartitionMaintenance eliminando
+     * particiones; este método queda para limpiezas puntuales (por ejemplo,
+     * filas expiradas que cayeron en la partición DEFAULT).
      */
     public Mono<Integer> cleanupExpiredRefreshTokens() {
         log.info("Limpiando refresh tokens expirados...");
@@ -267,8 +356,9 @@ public class TokenManagementService {
     }
 
     /**
-     * Limpia tokens expirados de la blacklist.
-     * Este método puede ser llamado por un scheduler periódico.
+     * Limpia tokens expirados de la blacklist con DELETE.
+     *
+     * Ver {@link #cleanupExpiredRefreshTokens()}: la limpieza periódica es por particiones.
      */
     public Mono<Integer> cleanupExpiredBlacklistedTokens() {
         log.info("Limpiando tokens expirados de la blacklist...");
@@ -0,0 +1,47 @@
+package com.jdbayer.facturacion.infrastructure.security.statistics;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Snapshot inmutable de las estadísticas de tokens.
+ *
+ * Se calcula periódicamente con {@link TokenStatisticsCollector}; las métricas
+ * y el endpoint /actuator/tokens leen siempre el último snapshot, nunca la BD.
+ *
+ * @param activeRefreshTokens refresh tokens vigentes y sin usar (sesiones abiertas)
+ * @param usedRefreshTokens refresh tokens ya usados que aún no expiran
+ * @param blacklistedByReason tokens en la blacklist que aún no expiran, por razón
+ * @param topUsers usuarios con más sesiones abiertas, de mayor a menor
+ * @param computedAt momento en que se calculó el snapshot (null si aún no se calculó)
+ */
+public record TokenStatistics(
+        long activeRefreshTokens,
+        long usedRefreshTokens,
+        Map<String, Long> blacklistedByReason,
+        List<UserSessions> topUsers,
+        Instant computedAt
+) {
+
+    public static final TokenStatistics EMPTY = new TokenStatistics(0, 0, Map.of(), List.of(), null);
+
+    public TokenStatistics {
+        blacklistedByReason = Map.copyOf(blacklistedByReason);
+        topUsers = List.copyOf(topUsers);
+    }
+
+    /**
+     * Total de tokens en la blacklist que aún no expiran.
+     */
+    public long blacklistedTokens() {
+        return blacklistedByReason.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Sesiones abiertas de un usuario.
+     */
+    public record UserSessions(UUID userId, long sessions) {
+    }
+}
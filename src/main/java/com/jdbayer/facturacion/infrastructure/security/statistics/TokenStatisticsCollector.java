@@ -0,0 +1,165 @@
+package com.jdbayer.facturacion.infrastructure.security.statistics;
+
+import com.jdbayer.facturacion.infrastructure.security.statistics.TokenStatistics.UserSessions;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Calcula y publica las estadísticas de tokens.
+ *
+ * Cada recálculo hace dos consultas de agregación, una por tabla, que recorren
+ * solo las filas vigentes (las particiones expiradas ya no existen):
+ * - refresh_tokens: un solo recorrido agrupa por usuario y, con funciones de
+ *   ventana, obtiene también los totales; el mismo resultado da el top de usuarios
+ * - blacklisted_tokens: conteo agrupado por razón
+ *
+ * El resultado se guarda en un snapshot inmutable. Las métricas y el endpoint
+ * de administración leen el snapshot, así los dashboards nunca disparan
+ * conteos sobre la BD.
+ *
+ * Métricas (gauges sobre el snapshot):
+ * - security.tokens.refresh.active: refresh tokens vigentes sin usar
+ * - security.tokens.refresh.used: refresh tokens usados que aún no expiran
+ * - security.tokens.blacklisted: tokens vigentes en la blacklist, por razón
+ * - security.tokens.statistics.age: segundos desde el último recálculo
+ */
+@Component
+@Slf4j
+public class TokenStatisticsCollector {
+
+    private static final String REFRESH_TOKENS_SQL =
+            "WITH per_user AS (" +
+            "SELECT user_id, count(*) FILTER (WHERE NOT used) AS active, count(*) FILTER (WHERE used) AS used " +
+            "FROM security.refresh_tokens WHERE expires_at > :now GROUP BY user_id) " +
+            "SELECT user_id, active, sum(active) OVER () AS total_active, sum(used) OVER () AS total_used " +
+            "FROM per_user ORDER BY active DESC LIMIT :limit";
+
+    private static final String BLACKLISTED_TOKENS_SQL =
+            "SELECT reason, count(*) AS total FROM security.blacklisted_tokens WHERE expires_at > :now GROUP BY reason";
+
+    private final DatabaseClient databaseClient;
+    private final TokenStatisticsProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final AtomicReference<TokenStatistics> snapshot = new AtomicReference<>(TokenStatistics.EMPTY);
+    private final Set<String> registeredReasons = ConcurrentHashMap.newKeySet();
+
+    public TokenStatisticsCollector(
+            DatabaseClient databaseClient,
+            TokenStatisticsProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.databaseClient = databaseClient;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("security.tokens.refresh.active", snapshot, s -> s.get().activeRefreshTokens())
+                .description("Refresh tokens vigentes sin usar (sesiones abiertas)")
+                .register(meterRegistry);
+        Gauge.builder("security.tokens.refresh.used", snapshot, s -> s.get().usedRefreshTokens())
+                .description("Refresh tokens usados que aún no expiran")
+                .register(meterRegistry);
+        Gauge.builder("security.tokens.statistics.age", snapshot, s -> {
+                    Instant computedAt = s.get().computedAt();
+                    return computedAt == null
+                            ? Double.NaN
+                            : (System.currentTimeMillis() - computedAt.toEpochMilli()) / 1000.0;
+                })
+                .description("Segundos desde el último cálculo de estadísticas de tokens")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Último snapshot calculado (TokenStatistics.EMPTY antes del primer cálculo).
+     */
+    public TokenStatistics current() {
+        return snapshot.get();
+    }
+
+    /**
+     * Recalcula el snapshot desde la BD y lo publica.
+     *
+     * @return Mono con el nuevo snapshot
+     */
+    public Mono<TokenStatistics> refresh() {
+        Instant now = Instant.now();
+        return Mono.zip(refreshTokenStatistics(now), blacklistByReason(now))
+                .map(result -> {
+                    RefreshTokenStatistics refresh = result.getT1();
+                    return new TokenStatistics(
+                            refresh.active(), refresh.used(), result.getT2(), refresh.topUsers(), now);
+                })
+                .doOnNext(statistics -> {
+                    snapshot.set(statistics);
+                    statistics.blacklistedByReason().keySet().forEach(this::registerReasonGauge);
+                });
+    }
+
+    private Mono<RefreshTokenStatistics> refreshTokenStatistics(Instant now) {
+        return databaseClient.sql(REFRESH_TOKENS_SQL)
+                .bind("now", now)
+                .bind("limit", properties.getTopUsers())
+                .map(row -> new UserRow(
+                        row.get("user_id", UUID.class),
+                        row.get("active", Long.class),
+                        row.get("total_active", Long.class),
+                        row.get("total_used", Long.class)))
+                .all()
+                .collectList()
+                .map(rows -> {
+                    if (rows.isEmpty()) {
+                        return new RefreshTokenStatistics(0, 0, List.of());
+                    }
+                    List<UserSessions> topUsers = rows.stream()
+                            .filter(row -> row.active() > 0)
+                            .map(row -> new UserSessions(row.userId(), row.active()))
+                            .toList();
+                    UserRow first = rows.getFirst();
+                    return new RefreshTokenStatistics(first.totalActive(), first.totalUsed(), topUsers);
+                });
+    }
+
+    private Mono<Map<String, Long>> blacklistByReason(Instant now) {
+        return databaseClient.sql(BLACKLISTED_TOKENS_SQL)
+                .bind("now", now)
+                .map(row -> Map.entry(row.get("reason", String.class), row.get("total", Long.class)))
+                .all()
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue, HashMap::new);
+    }
+
+    /**
+     * Registra el gauge de una razón la primera vez que aparece. Si la razón
+     * desaparece de un snapshot posterior, el gauge reporta 0.
+     */
+    private void registerReasonGauge(String reason) {
+        if (registeredReasons.add(reason)) {
+            Gauge.builder("security.tokens.blacklisted", snapshot,
+                            s -> s.get().blacklistedByReason().getOrDefault(reason, 0L))
+                    .description("Tokens vigentes en la blacklist")
+                    .tag("reason", reason)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Fila del top de usuarios; cada fila repite los totales de la tabla.
+     */
+    private record UserRow(UUID userId, long active, long totalActive, long totalUsed) {
+    }
+
+    private record RefreshTokenStatistics(long active, long used, List<UserSessions> topUsers) {
+    }
+}
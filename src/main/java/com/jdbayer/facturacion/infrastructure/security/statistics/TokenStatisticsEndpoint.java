@@ -0,0 +1,28 @@
+package com.jdbayer.facturacion.infrastructure.security.statistics;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Endpoint de administración /actuator/tokens.
+ *
+ * Retorna el último snapshot de {@link TokenStatisticsCollector}; no consulta la BD.
+ * Expone IDs de usuario (topUsers): requiere ROLE_ADMIN, como el resto de
+ * /actuator salvo health e info (ver SecurityFilterChainConfig y AdminProperties).
+ */
+@Component
+@Endpoint(id = "tokens")
+public class TokenStatisticsEndpoint {
+
+    private final TokenStatisticsCollector collector;
+
+    public TokenStatisticsEndpoint(TokenStatisticsCollector collector) {
+        this.collector = collector;
+    }
+
+    @ReadOperation
+    public TokenStatistics statistics() {
+        return collector.current();
+    }
+}
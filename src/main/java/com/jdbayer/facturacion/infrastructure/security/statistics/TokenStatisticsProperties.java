@@ -0,0 +1,22 @@
+package com.jdbayer.facturacion.infrastructure.security.statistics;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Component
+public class TokenStatisticsProperties {
+
+    /**
+     * Intervalo entre recálculos del snapshot (ms).
+     */
+    @Value("${security.token-statistics.refresh-interval:300000}")
+    private long refreshInterval;
+
+    /**
+     * Cantidad de usuarios con más sesiones que se incluyen en el snapshot.
+     */
+    @Value("${security.token-statistics.top-users:10}")
+    private int topUsers;
+}
@@ -9,6 +9,7 @@ import com.jdbayer.facturacion.application.usecase.LoginUseCase;
 import com.jdbayer.facturacion.application.usecase.LogoutUseCase;
 import com.jdbayer.facturacion.application.usecase.RefreshTokenUseCase;
 import com.jdbayer.facturacion.application.usecase.RegisterUserUseCase;
+import com.jdbayer.facturacion.infrastructure.security.ratelimit.AuthRateLimiter;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -31,6 +32,9 @@ import java.util.UUID;
  *
  * Los endpoints de register, login y refresh son públicos.
  * El endpoint de logout requiere autenticación.
+ *
+ * Register y login tienen rate limiting (AuthRateLimiter), evaluado antes
+ * de cualquier consulta a la BD o hashing de contraseñas.
  */
 @RestController
 @RequestMapping("/api/auth")
@@ -41,24 +45,28 @@ public class AuthController {
     private final LoginUseCase loginUseCase;
     private final RefreshTokenUseCase refreshTokenUseCase;
     private final LogoutUseCase logoutUseCase;
+    private final AuthRateLimiter authRateLimiter;
 
     public AuthController(
             RegisterUserUseCase registerUserUseCase,
             LoginUseCase loginUseCase,
             RefreshTokenUseCase refreshTokenUseCase,
-            LogoutUseCase logoutUseCase
+            LogoutUseCase logoutUseCase,
+            AuthRateLimiter authRateLimiter
     ) {
         this.registerUserUseCase = registerUserUseCase;
         this.loginUseCase = loginUseCase;
         this.refreshTokenUseCase = refreshTokenUseCase;
         this.logoutUseCase = logoutUseCase;
+        this.authRateLimiter = authRateLimiter;
     }
 
     /**
      * Registra un nuevo usuario en el sistema.
      *
      * @param request Datos del usuario a registrar
-     * @return 201 CREATED con los datos del usuario registrado
+     * @param httpRequest Request HTTP (para obtener la IP)
+     * @return 201 CREATED con los datos del usuario registrado, 429 si se excede el límite
      *
      * Ejemplo de request:
      * POST /api/auth/register
@@ -81,10 +89,14 @@ public class AuthController {
      * }
      */
     @PostMapping("/register")
-    public Mono<ResponseEntity<UserResponse>> register(@Valid @RequestBody RegisterUserRequest request) {
+    public Mono<ResponseEntity<UserResponse>> register(
+            @Valid @RequestBody RegisterUserRequest request,
+            ServerHttpRequest httpRequest
+    ) {
         log.info("Solicitud de registro recibida para email: {}", request.email());
 
-        return registerUserUseCase.execute(request)
+        return authRateLimiter.checkRegister(extractIpAddress(httpRequest))
+                .then(Mono.defer(() -> registerUserUseCase.execute(request)))
                 .map(userResponse -> ResponseEntity
                         .status(HttpStatus.CREATED)
                         .body(userResponse))
@@ -96,7 +108,8 @@ public class AuthController {
      * Autentica un usuario y retorna un token JWT.
      *
      * @param request Credenciales del usuario
-     * @return 200 OK con el token JWT y datos del usuario
+     * @param httpRequest Request HTTP (para obtener la IP)
+     * @return 200 OK con el token JWT y datos del usuario, 429 si se excede el límite
      *
      * Ejemplo de request:
      * POST /api/auth/login
@@ -119,10 +132,14 @@ public class AuthController {
      * }
      */
     @PostMapping("/login")
-    public Mono<ResponseEntity<AuthResponse>> login(@Valid @RequestBody LoginRequest request) {
+    public Mono<ResponseEntity<AuthResponse>> login(
+            @Valid @RequestBody LoginRequest request,
+            ServerHttpRequest httpRequest
+    ) {
         log.info("Solicitud de login recibida para email: {}", request.email());
 
-        return loginUseCase.execute(request)
+        return authRateLimiter.checkLogin(request.email(), extractIpAddress(httpRequest))
+                .then(Mono.defer(() -> loginUseCase.execute(request)))
                 .map(authResponse -> ResponseEntity
                         .ok()
                         .body(authResponse))
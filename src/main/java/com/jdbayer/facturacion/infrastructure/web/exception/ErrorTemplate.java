@@ -0,0 +1,90 @@
+package com.jdbayer.facturacion.infrastructure.web.exception;
+
+import org.springframework.http.HttpStatusCode;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cuerpo JSON de error pre-renderizado para un tipo de error.
+ *
+ * Produce el mismo JSON que ErrorResponse serializado por Jackson
+ * (timestamp, status, error, message, path), pero sin reflexión ni
+ * objetos intermedios: status y error se renderizan una vez, y por request
+ * solo se completan timestamp y path. Los mensajes fijos (por ejemplo,
+ * "Credenciales inválidas") también se cachean ya escapados.
+ */
+final class ErrorTemplate {
+
+    /**
+     * Máximo de mensajes distintos cacheados; los mensajes con datos variables
+     * (IDs, emails) se escapan en cada request en lugar de llenar el cache.
+     */
+    private static final int MAX_CACHED_MESSAGES = 32;
+
+    private final HttpStatusCode status;
+    private final String statusAndError;
+    private final Map<String, String> middleByMessage = new ConcurrentHashMap<>();
+
+    ErrorTemplate(HttpStatusCode status, String error) {
+        this.status = status;
+        this.statusAndError = "\",\"status\":" + status.value() + ",\"error\":\"" + escape(error) + "\",\"message\":\"";
+    }
+
+    HttpStatusCode status() {
+        return status;
+    }
+
+    /**
+     * Renderiza el cuerpo del error.
+     *
+     * @param message Mensaje del error
+     * @param path Path del request
+     * @return JSON en UTF-8
+     */
+    byte[] render(String message, String path) {
+        String middle = middleByMessage.get(message);
+        if (middle == null) {
+            middle = statusAndError + escape(message) + "\",\"path\":\"";
+            if (middleByMessage.size() < MAX_CACHED_MESSAGES) {
+                middleByMessage.putIfAbsent(message, middle);
+            }
+        }
+        String json = "{\"timestamp\":\"" + Instant.now() + middle + escape(path) + "\"}";
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Escapa un string para incluirlo dentro de comillas en JSON.
+     */
+    static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder escaped = null;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String replacement = switch (c) {
+                case '"' -> "\\\"";
+                case '\\' -> "\\\\";
+                case '\n' -> "\\n";
+                case '\r' -> "\\r";
+                case '\t' -> "\\t";
+                default -> c < 0x20 ? String.format("\\u%04x", (int) c) : null;
+            };
+            if (replacement != null && escaped == null) {
+                escaped = new StringBuilder(value.length() + 16).append(value, 0, i);
+            }
+            if (escaped != null) {
+                if (replacement != null) {
+                    escaped.append(replacement);
+                } else {
+                    escaped.append(c);
+                }
+            }
+        }
+        return escaped != null ? escaped.toString() : value;
+    }
+}
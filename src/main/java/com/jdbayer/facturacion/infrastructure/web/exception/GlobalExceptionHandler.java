@@ -2,9 +2,16 @@ package com.jdbayer.facturacion.infrastructure.web.exception;
 
 import com.jdbayer.facturacion.application.dto.response.ErrorResponse;
 import com.jdbayer.facturacion.domain.exception.*;
+import com.jdbayer.facturacion.infrastructure.logging.LogThrottle;
+import com.jdbayer.facturacion.infrastructure.persistence.repository.impl.UserLookupUnavailableException;
+import com.jdbayer.facturacion.infrastructure.security.hashing.PasswordHashingUnavailableException;
+import com.jdbayer.facturacion.infrastructure.security.ratelimit.RateLimitExceededException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -14,6 +21,7 @@ import reactor.core.publisher.Mono;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Manejador global de excepciones para toda la aplicación.
@@ -22,11 +30,48 @@ import java.util.Map;
  * con códigos de estado y mensajes descriptivos.
  *
  * @RestControllerAdvice permite interceptar excepciones de todos los controllers.
+ *
+ * Los errores de cliente esperados (401, 404, 409, 422, 429...) siguen un camino
+ * rápido, porque bajo ataque son la mayoría de las respuestas:
+ * - Las excepciones de dominio no capturan stack trace
+ * - El cuerpo JSON sale de un {@link ErrorTemplate} pre-renderizado, sin Jackson
+ * - Se registran en WARN con un límite de líneas por segundo por tipo de error
+ *   (web.errors.log-per-second); el resto solo se cuenta
+ *
+ * Los errores de validación y los inesperados (500) mantienen ErrorResponse.
  */
 @RestControllerAdvice
 @Slf4j
 public class GlobalExceptionHandler {
 
+    private final ClientError userNotFound;
+    private final ClientError duplicateEmail;
+    private final ClientError invalidCredentials;
+    private final ClientError invalidEmail;
+    private final ClientError invalidName;
+    private final ClientError invalidUserState;
+    private final ClientError domainError;
+    private final ClientError illegalState;
+    private final ClientError illegalArgument;
+    private final ClientError rateLimited;
+    private final ClientError hashingUnavailable;
+    private final ClientError lookupUnavailable;
+
+    public GlobalExceptionHandler(@Value("${web.errors.log-per-second:10}") int logPerSecond) {
+        this.userNotFound = new ClientError("Usuario no encontrado", HttpStatus.NOT_FOUND, "Not Found", logPerSecond);
+        this.duplicateEmail = new ClientError("Email duplicado", HttpStatus.CONFLICT, "Conflict", logPerSecond);
+        this.invalidCredentials = new ClientError("Credenciales inválidas", HttpStatus.UNAUTHORIZED, "Unauthorized", logPerSecond);
+        this.invalidEmail = new ClientError("Email inválido", HttpStatus.BAD_REQUEST, "Bad Request", logPerSecond);
+        this.invalidName = new ClientError("Nombre inválido", HttpStatus.BAD_REQUEST, "Bad Request", logPerSecond);
+        this.invalidUserState = new ClientError("Estado de usuario inválido", HttpStatusCode.valueOf(422), "Unprocessable Entity", logPerSecond);
+        this.domainError = new ClientError("Error de dominio", HttpStatus.BAD_REQUEST, "Bad Request", logPerSecond);
+        this.illegalState = new ClientError("Estado inválido", HttpStatusCode.valueOf(422), "Unprocessable Entity", logPerSecond);
+        this.illegalArgument = new ClientError("Argumento inválido", HttpStatus.BAD_REQUEST, "Bad Request", logPerSecond);
+        this.rateLimited = new ClientError("Límite de solicitudes superado", HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", logPerSecond);
+        this.hashingUnavailable = new ClientError("Hashing de contraseñas saturado", HttpStatus.SERVICE_UNAVAILABLE, "Service Unavailable", logPerSecond);
+        this.lookupUnavailable = new ClientError("Búsquedas de usuarios saturadas", HttpStatus.SERVICE_UNAVAILABLE, "Service Unavailable", logPerSecond);
+    }
+
     /**
      * Maneja excepciones de validación de DTOs (Jakarta Validation).
      *
@@ -87,22 +132,11 @@ public class GlobalExceptionHandler {
      * }
      */
     @ExceptionHandler(UserNotFoundException.class)
-    public Mono<ResponseEntity<ErrorResponse>> handleUserNotFoundException(
+    public Mono<ResponseEntity<byte[]>> handleUserNotFoundException(
             UserNotFoundException ex,
             ServerWebExchange exchange
     ) {
-        log.error("Usuario no encontrado: {}", ex.getMessage());
-
-        ErrorResponse errorResponse = new ErrorResponse(
-                HttpStatus.NOT_FOUND.value(),
-                "Not Found",
-                ex.getMessage(),
-                exchange.getRequest().getPath().value()
-        );
-
-        return Mono.just(ResponseEntity
-                .status(HttpStatus.NOT_FOUND)
-                .body(errorResponse));
+        return userNotFound.respond(ex, exchange);
     }
 
     /**
@@ -120,22 +154,11 @@ public class GlobalExceptionHandler {
      * }
      */
     @ExceptionHandler(DuplicateEmailException.class)
-    public Mono<ResponseEntity<ErrorResponse>> handleDuplicateEmailException(
+    public Mono<ResponseEntity<byte[]>> handleDuplicateEmailException(
             DuplicateEmailException ex,
             ServerWebExchange exchange
     ) {
-        log.error("Email duplicado: {}", ex.getMessage());
-
-        ErrorResponse errorResponse = new ErrorResponse(
-                HttpStatus.CONFLICT.value(),
-                "Conflict",
-                ex.getMessage(),
-                exchange.getRequest().getPath().value()
-        );
-
-        return Mono.just(ResponseEntity
-                .status(HttpStatus.CONFLICT)
-                .body(errorResponse));
+        return duplicateEmail.respond(ex, exchange);
     }
 
     /**
@@ -153,22 +176,11 @@ public class GlobalExceptionHandler {
      * }
      */
     @ExceptionHandler(InvalidCredentialsException.class)
-    public Mono<ResponseEntity<ErrorResponse>> handleInvalidCredentialsException(
+    public Mono<ResponseEntity<byte[]>> handleInvalidCredentialsException(
             InvalidCredentialsException ex,
             ServerWebExchange exchange
     ) {
-        log.error("Credenciales inválidas: {}", ex.getMessage());
-
-        ErrorResponse errorResponse = new ErrorResponse(
-                HttpStatus.UNAUTHORIZED.value(),
-                "Unauthorized",
-                ex.getMessage(),
-                exchange.getRequest().getPath().value()
-        );
-
-        return Mono.just(ResponseEntity
-                .status(HttpStatus.UNAUTHORIZED)
-                .body(errorResponse));
+        return invalidCredentials.respond(ex, exchange);
     }
 
     /**
@@ -177,22 +189,11 @@ public class GlobalExceptionHandler {
      * @return 400 BAD REQUEST
      */
     @ExceptionHandler(InvalidEmailException.class)
-    public Mono<ResponseEntity<ErrorResponse>> handleInvalidEmailException(
+    public Mono<ResponseEntity<byte[]>> handleInvalidEmailException(
             InvalidEmailException ex,
             ServerWebExchange exchange
     ) {
-        log.error("Email inválido: {}", ex.getMessage());
-
-        ErrorResponse errorResponse = new ErrorResponse(
-                HttpStatus.BAD_REQUEST.value(),
-                "Bad Request",
-                ex.getMessage(),
-                exchange.getRequest().getPath().value()
-        );
-
-        return Mono.just(ResponseEntity
-                .status(HttpStatus.BAD_REQUEST)
-                .body(errorResponse));
+        return invalidEmail.respond(ex, exchange);
     }
 
     /**
@@ -201,22 +202,28 @@ public class GlobalExceptionHandler {
      * @return 400 BAD REQUEST
      */
     @ExceptionHandler(InvalidNameException.class)
-    public Mono<ResponseEntity<ErrorResponse>> handleInvalidNameException(
+    public Mono<ResponseEntity<byte[]>> handleInvalidNameException(
             InvalidNameException ex,
             ServerWebExchange exchange
     ) {
-        log.error("Nombre inválido: {}", ex.getMessage());
-
-        ErrorResponse errorResponse = new ErrorResponse(
-                HttpStatus.BAD_REQUEST.value(),
-                "Bad Request",
-                ex.getMessage(),
-                exchange.getRequest().getPath().value()
-        );
+        return invalidName.respond(ex, exchange);
+    }
 
-        return Mono.just(ResponseEntity
-                .status(HttpStatus.BAD_REQUEST)
-                .body(errorResponse));
+    /**
+     * Maneja operaciones no permitidas por el estado del usuario.
+     *
+     * @return 422 UNPROCESSABLE ENTITY
+     *
+     * Ejemplo:
+     * - Intentar desactivar un usuario ya inactivo
+     * - Renovar el token de un usuario inactivo
+     */
+    @ExceptionHandler(InvalidUserStateException.class)
+    public Mono<ResponseEntity<byte[]>> handleInvalidUserStateException(
+            InvalidUserStateException ex,
+            ServerWebExchange exchange
+    ) {
+        return invalidUserState.respond(ex, exchange);
     }
 
     /**
@@ -225,50 +232,27 @@ public class GlobalExceptionHandler {
      * @return 400 BAD REQUEST
      */
     @ExceptionHandler(DomainException.class)
-    public Mono<ResponseEntity<ErrorResponse>> handleDomainException(
+    public Mono<ResponseEntity<byte[]>> handleDomainException(
             DomainException ex,
             ServerWebExchange exchange
     ) {
-        log.error("Error de dominio: {}", ex.getMessage());
-
-        ErrorResponse errorResponse = new ErrorResponse(
-                HttpStatus.BAD_REQUEST.value(),
-                "Bad Request",
-                ex.getMessage(),
-                exchange.getRequest().getPath().value()
-        );
-
-        return Mono.just(ResponseEntity
-                .status(HttpStatus.BAD_REQUEST)
-                .body(errorResponse));
+        return domainError.respond(ex, exchange);
     }
 
     /**
      * Maneja IllegalStateException (errores de lógica de negocio).
      *
-     * @return 422 UNPROCESSABLE ENTITY
+     * Las reglas del dominio usan InvalidUserStateException; este handler
+     * cubre el resto de los casos.
      *
-     * Ejemplo:
-     * - Intentar desactivar un usuario ya inactivo
-     * - Intentar activar un usuario ya activo
+     * @return 422 UNPROCESSABLE ENTITY
      */
     @ExceptionHandler(IllegalStateException.class)
-    public Mono<ResponseEntity<ErrorResponse>> handleIllegalStateException(
+    public Mono<ResponseEntity<byte[]>> handleIllegalStateException(
             IllegalStateException ex,
             ServerWebExchange exchange
     ) {
-        log.error("Estado inválido: {}", ex.getMessage());
-
-        ErrorResponse errorResponse = new ErrorResponse(
-                422,
-                "Unprocessable Entity",
-                ex.getMessage(),
-                exchange.getRequest().getPath().value()
-        );
-
-        return Mono.just(ResponseEntity
-                .status(HttpStatusCode.valueOf(422))
-                .body(errorResponse));
+        return illegalState.respond(ex, exchange);
     }
 
     /**
@@ -277,22 +261,53 @@ public class GlobalExceptionHandler {
      * @return 400 BAD REQUEST
      */
     @ExceptionHandler(IllegalArgumentException.class)
-    public Mono<ResponseEntity<ErrorResponse>> handleIllegalArgumentException(
+    public Mono<ResponseEntity<byte[]>> handleIllegalArgumentException(
             IllegalArgumentException ex,
             ServerWebExchange exchange
     ) {
-        log.error("Argumento inválido: {}", ex.getMessage());
+        return illegalArgument.respond(ex, exchange);
+    }
 
-        ErrorResponse errorResponse = new ErrorResponse(
-                HttpStatus.BAD_REQUEST.value(),
-                "Bad Request",
-                ex.getMessage(),
-                exchange.getRequest().getPath().value()
-        );
+    /**
+     * Maneja solicitudes rechazadas por rate limiting.
+     *
+     * @return 429 TOO MANY REQUESTS con Retry-After
+     */
+    @ExceptionHandler(RateLimitExceededException.class)
+    public Mono<ResponseEntity<byte[]>> handleRateLimitExceededException(
+            RateLimitExceededException ex,
+            ServerWebExchange exchange
+    ) {
+        return rateLimited.respond(ex, exchange,
+                headers -> headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds())));
+    }
 
-        return Mono.just(ResponseEntity
-                .status(HttpStatus.BAD_REQUEST)
-                .body(errorResponse));
+    /**
+     * Maneja la saturación del executor de hashing de contraseñas.
+     *
+     * @return 503 SERVICE UNAVAILABLE con Retry-After
+     */
+    @ExceptionHandler(PasswordHashingUnavailableException.class)
+    public Mono<ResponseEntity<byte[]>> handlePasswordHashingUnavailableException(
+            PasswordHashingUnavailableException ex,
+            ServerWebExchange exchange
+    ) {
+        return hashingUnavailable.respond(ex, exchange,
+                headers -> headers.set(HttpHeaders.RETRY_AFTER, "1"));
+    }
+
+    /**
+     * Maneja la saturación de las búsquedas agrupadas de usuarios (BD lenta).
+     *
+     * @return 503 SERVICE UNAVAILABLE con Retry-After
+     */
+    @ExceptionHandler(UserLookupUnavailableException.class)
+    public Mono<ResponseEntity<byte[]>> handleUserLookupUnavailableException(
+            UserLookupUnavailableException ex,
+            ServerWebExchange exchange
+    ) {
+        return lookupUnavailable.respond(ex, exchange,
+                headers -> headers.set(HttpHeaders.RETRY_AFTER, "1"));
     }
 
     /**
@@ -328,4 +343,44 @@ public class GlobalExceptionHandler {
                 .status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(errorResponse));
     }
-}
\ No newline at end of file
+
+    /**
+     * Tipo de error de cliente: plantilla del cuerpo y límite de log.
+     */
+    private static final class ClientError {
+
+        private final String label;
+        private final ErrorTemplate template;
+        private final LogThrottle logThrottle;
+
+        ClientError(String label, HttpStatusCode status, String error, int logPerSecond) {
+            this.label = label;
+            this.template = new ErrorTemplate(status, error);
+            this.logThrottle = new LogThrottle(logPerSecond);
+        }
+
+        Mono<ResponseEntity<byte[]>> respond(RuntimeException ex, ServerWebExchange exchange) {
+            return respond(ex, exchange, headers -> { });
+        }
+
+        Mono<ResponseEntity<byte[]>> respond(
+                RuntimeException ex,
+                ServerWebExchange exchange,
+                Consumer<HttpHeaders> headers
+        ) {
+            long suppressed = logThrottle.tryAcquire();
+            if (suppressed > 0) {
+                log.warn("{}: {} ({} similares omitidos)", label, ex.getMessage(), suppressed);
+            } else if (suppressed == 0) {
+                log.warn("{}: {}", label, ex.getMessage());
+            }
+
+            byte[] body = template.render(ex.getMessage(), exchange.getRequest().getPath().value());
+            return Mono.just(ResponseEntity
+                    .status(template.status())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .headers(headers)
+                    .body(body));
+        }
+    }
+}
@@ -0,0 +1,7 @@
+-- Época de tokens por usuario: los access tokens llevan la época vigente al
+-- emitirse (claim "ver"). Incrementarla revoca todas las sesiones del usuario
+-- con una sola actualización, sin una fila de blacklist por token.
+ALTER TABLE security.users
+    ADD COLUMN token_epoch BIGINT NOT NULL DEFAULT 0;
+
+COMMENT ON COLUMN security.users.token_epoch IS 'Época de tokens; los tokens con una época menor están revocados';
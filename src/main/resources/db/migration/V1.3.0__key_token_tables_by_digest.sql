@@ -0,0 +1,38 @@
+-- Las tablas de tokens usaban el JWT completo (cientos de bytes) como clave
+-- primaria. Se reemplaza por su digest SHA-256 (32 bytes): índices más
+-- pequeños, más entradas por página en shared buffers y comparaciones de
+-- longitud fija. Además, la BD deja de guardar tokens utilizables.
+--
+-- El digest se calcula igual que TokenDigest.of(token): SHA-256 de los bytes UTF-8.
+
+-- ============= REFRESH TOKENS =============
+
+ALTER TABLE security.refresh_tokens ADD COLUMN token_hash BYTEA;
+
+UPDATE security.refresh_tokens SET token_hash = sha256(convert_to(token, 'UTF8'));
+
+ALTER TABLE security.refresh_tokens
+    ALTER COLUMN token_hash SET NOT NULL,
+    ADD CONSTRAINT chk_refresh_tokens_token_hash_length CHECK (octet_length(token_hash) = 32);
+
+ALTER TABLE security.refresh_tokens DROP CONSTRAINT refresh_tokens_pkey;
+ALTER TABLE security.refresh_tokens ADD CONSTRAINT refresh_tokens_pkey PRIMARY KEY (token_hash);
+ALTER TABLE security.refresh_tokens DROP COLUMN token;
+
+COMMENT ON COLUMN security.refresh_tokens.token_hash IS 'SHA-256 del refresh token JWT';
+
+-- ============= BLACKLISTED TOKENS =============
+
+ALTER TABLE security.blacklisted_tokens ADD COLUMN token_hash BYTEA;
+
+UPDATE security.blacklisted_tokens SET token_hash = sha256(convert_to(token, 'UTF8'));
+
+ALTER TABLE security.blacklisted_tokens
+    ALTER COLUMN token_hash SET NOT NULL,
+    ADD CONSTRAINT chk_blacklisted_tokens_token_hash_length CHECK (octet_length(token_hash) = 32);
+
+ALTER TABLE security.blacklisted_tokens DROP CONSTRAINT blacklisted_tokens_pkey;
+ALTER TABLE security.blacklisted_tokens ADD CONSTRAINT blacklisted_tokens_pkey PRIMARY KEY (token_hash);
+ALTER TABLE security.blacklisted_tokens DROP COLUMN token;
+
+COMMENT ON COLUMN security.blacklisted_tokens.token_hash IS 'SHA-256 del token JWT invalidado';
@@ -0,0 +1,196 @@
+-- Particiona las tablas de tokens por día de expiración (expires_at).
+--
+-- La limpieza deja de ser un DELETE masivo (tuplas muertas, presión sobre
+-- autovacuum, locks largos) y pasa a ser DETACH + DROP de las particiones
+-- cuyo día completo ya expiró: costo constante sin importar el volumen.
+--
+-- - Una partición por día: <tabla>_pYYYYMMDD con [día, día + 1)
+-- - Partición DEFAULT como red de seguridad si falta la partición de un día
+-- - La clave primaria incluye expires_at (requisito de PostgreSQL en tablas
+--   particionadas). expires_at se escribe igual al claim exp del JWT, que es
+--   parte del token firmado y de su digest: un token_hash siempre lleva el
+--   mismo expires_at, así que la clave sigue impidiendo token_hash duplicados
+-- - Las búsquedas por token filtran también por expires_at (conocido por el
+--   exp) para que el planner pode particiones; sin ese filtro se recorrería
+--   el índice de cada partición diaria más la DEFAULT
+-- - TokenPartitionMaintenance crea las particiones futuras y elimina las expiradas
+-- - expires_at es un TIMESTAMP en UTC (escrito desde Instant): los días se
+--   calculan con (now() AT TIME ZONE 'UTC')::date, nunca con current_date,
+--   que depende de la TimeZone de la sesión
+
+-- ============= FUNCIONES DE MANTENIMIENTO =============
+
+-- Crea la partición de un día si no existe. Retorna true si la creó.
+-- Si la partición DEFAULT ya recibió filas de ese día (la partición faltaba),
+-- se mueven a la nueva partición; si no, PostgreSQL rechazaría crearla.
+CREATE OR REPLACE FUNCTION security.create_token_partition(parent TEXT, day DATE)
+RETURNS BOOLEAN
+LANGUAGE plpgsql AS $$
+DECLARE
+    partition_name TEXT := parent || '_p' || to_char(day, 'YYYYMMDD');
+    default_name TEXT := parent || '_default';
+    has_overflow BOOLEAN;
+BEGIN
+    IF to_regclass(format('security.%I', partition_name)) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    EXECUTE format(
+        'SELECT EXISTS(SELECT 1 FROM security.%I WHERE expires_at >= %L AND expires_at < %L)',
+        default_name, day::TIMESTAMP, (day + 1)::TIMESTAMP
+    ) INTO has_overflow;
+
+    IF has_overflow THEN
+        EXECUTE format('CREATE TEMP TABLE token_partition_overflow (LIKE security.%I) ON COMMIT DROP', parent);
+        EXECUTE format(
+            'WITH moved AS (DELETE FROM security.%I WHERE expires_at >= %L AND expires_at < %L RETURNING *) '
+            'INSERT INTO token_partition_overflow SELECT * FROM moved',
+            default_name, day::TIMESTAMP, (day + 1)::TIMESTAMP
+        );
+    END IF;
+
+    EXECUTE format(
+        'CREATE TABLE security.%I PARTITION OF security.%I FOR VALUES FROM (%L) TO (%L)',
+        partition_name, parent, day::TIMESTAMP, (day + 1)::TIMESTAMP
+    );
+
+    IF has_overflow THEN
+        EXECUTE format('INSERT INTO security.%I SELECT * FROM token_partition_overflow', parent);
+        DROP TABLE token_partition_overflow;
+    END IF;
+
+    RETURN TRUE;
+END;
+$$;
+
+-- Crea las particiones diarias faltantes en [from_day, to_day]. Retorna cuántas creó.
+CREATE OR REPLACE FUNCTION security.ensure_token_partitions(parent TEXT, from_day DATE, to_day DATE)
+RETURNS INTEGER
+LANGUAGE plpgsql AS $$
+DECLARE
+    day DATE;
+    created INTEGER := 0;
+BEGIN
+    FOR day IN SELECT generate_series(from_day, to_day, INTERVAL '1 day')::DATE LOOP
+        IF security.create_token_partition(parent, day) THEN
+            created := created + 1;
+        END IF;
+    END LOOP;
+    RETURN created;
+END;
+$$;
+
+-- Desvincula y elimina las particiones cuyo día completo es anterior a before_day.
+-- El día se obtiene del sufijo del nombre (_pYYYYMMDD). Retorna cuántas eliminó.
+CREATE OR REPLACE FUNCTION security.drop_expired_token_partitions(parent TEXT, before_day DATE)
+RETURNS INTEGER
+LANGUAGE plpgsql AS $$
+DECLARE
+    child RECORD;
+    dropped INTEGER := 0;
+BEGIN
+    -- No quedarse esperando detrás de consultas largas: se reintenta en la siguiente ejecución
+    PERFORM set_config('lock_timeout', '2s', TRUE);
+
+    FOR child IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = format('security.%I', parent)::REGCLASS
+          AND c.relname ~ ('^' || parent || '_p[0-9]{8}$')
+          AND to_date(right(c.relname, 8), 'YYYYMMDD') < before_day
+        ORDER BY c.relname
+    LOOP
+        EXECUTE format('ALTER TABLE security.%I DETACH PARTITION security.%I', parent, child.relname);
+        EXECUTE format('DROP TABLE security.%I', child.relname);
+        dropped := dropped + 1;
+    END LOOP;
+    RETURN dropped;
+END;
+$$;
+
+-- ============= REFRESH TOKENS =============
+
+ALTER TABLE security.refresh_tokens RENAME TO refresh_tokens_unpartitioned;
+ALTER TABLE security.refresh_tokens_unpartitioned RENAME CONSTRAINT refresh_tokens_pkey TO refresh_tokens_unpartitioned_pkey;
+
+CREATE TABLE security.refresh_tokens (
+    token_hash BYTEA NOT NULL,
+    user_id UUID NOT NULL,
+    email VARCHAR(100) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    ip_address VARCHAR(45),
+    user_agent VARCHAR(500),
+    used BOOLEAN DEFAULT FALSE NOT NULL,
+    last_used_at TIMESTAMP,
+    CONSTRAINT refresh_tokens_pkey PRIMARY KEY (token_hash, expires_at),
+    CONSTRAINT chk_refresh_tokens_token_hash_length CHECK (octet_length(token_hash) = 32),
+    CONSTRAINT fk_refresh_token_user FOREIGN KEY (user_id) REFERENCES security.users(id) ON DELETE CASCADE
+) PARTITION BY RANGE (expires_at);
+
+CREATE TABLE security.refresh_tokens_default PARTITION OF security.refresh_tokens DEFAULT;
+
+SELECT security.ensure_token_partitions(
+    'refresh_tokens',
+    LEAST((now() AT TIME ZONE 'UTC')::date - 1,
+          (SELECT min(expires_at)::DATE FROM security.refresh_tokens_unpartitioned WHERE expires_at >= now() AT TIME ZONE 'UTC')),
+    (now() AT TIME ZONE 'UTC')::date + 14
+);
+
+INSERT INTO security.refresh_tokens
+    (token_hash, user_id, email, created_at, expires_at, ip_address, user_agent, used, last_used_at)
+SELECT token_hash, user_id, email, created_at, expires_at, ip_address, user_agent, used, last_used_at
+FROM security.refresh_tokens_unpartitioned
+WHERE expires_at >= now() AT TIME ZONE 'UTC';
+
+DROP TABLE security.refresh_tokens_unpartitioned;
+
+CREATE INDEX idx_refresh_tokens_user_id ON security.refresh_tokens(user_id);
+CREATE INDEX idx_refresh_tokens_email ON security.refresh_tokens(email);
+
+COMMENT ON TABLE security.refresh_tokens IS 'Tabla para almacenar refresh tokens JWT (particionada por día de expiración)';
+COMMENT ON COLUMN security.refresh_tokens.token_hash IS 'SHA-256 del refresh token JWT';
+COMMENT ON COLUMN security.refresh_tokens.user_id IS 'ID del usuario propietario del token';
+COMMENT ON COLUMN security.refresh_tokens.used IS 'Indica si el token ya fue usado (para prevenir reutilización)';
+
+-- ============= BLACKLISTED TOKENS =============
+
+ALTER TABLE security.blacklisted_tokens RENAME TO blacklisted_tokens_unpartitioned;
+ALTER TABLE security.blacklisted_tokens_unpartitioned RENAME CONSTRAINT blacklisted_tokens_pkey TO blacklisted_tokens_unpartitioned_pkey;
+
+CREATE TABLE security.blacklisted_tokens (
+    token_hash BYTEA NOT NULL,
+    user_id UUID NOT NULL,
+    email VARCHAR(100) NOT NULL,
+    blacklisted_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    reason VARCHAR(100) NOT NULL,
+    ip_address VARCHAR(45),
+    expires_at TIMESTAMP NOT NULL,
+    CONSTRAINT blacklisted_tokens_pkey PRIMARY KEY (token_hash, expires_at),
+    CONSTRAINT chk_blacklisted_tokens_token_hash_length CHECK (octet_length(token_hash) = 32),
+    CONSTRAINT fk_blacklisted_token_user FOREIGN KEY (user_id) REFERENCES security.users(id) ON DELETE CASCADE
+) PARTITION BY RANGE (expires_at);
+
+CREATE TABLE security.blacklisted_tokens_default PARTITION OF security.blacklisted_tokens DEFAULT;
+
+SELECT security.ensure_token_partitions(
+    'blacklisted_tokens',
+    LEAST((now() AT TIME ZONE 'UTC')::date - 1,
+          (SELECT min(expires_at)::DATE FROM security.blacklisted_tokens_unpartitioned WHERE expires_at >= now() AT TIME ZONE 'UTC')),
+    (now() AT TIME ZONE 'UTC')::date + 14
+);
+
+INSERT INTO security.blacklisted_tokens
+    (token_hash, user_id, email, blacklisted_at, reason, ip_address, expires_at)
+SELECT token_hash, user_id, email, blacklisted_at, reason, ip_address, expires_at
+FROM security.blacklisted_tokens_unpartitioned
+WHERE expires_at >= now() AT TIME ZONE 'UTC';
+
+DROP TABLE security.blacklisted_tokens_unpartitioned;
+
+CREATE INDEX idx_blacklisted_tokens_user_id ON security.blacklisted_tokens(user_id);
+
+COMMENT ON TABLE security.blacklisted_tokens IS 'Tabla para tokens JWT invalidados (particionada por día de expiración)';
+COMMENT ON COLUMN security.blacklisted_tokens.token_hash IS 'SHA-256 del token JWT invalidado';
+COMMENT ON COLUMN security.blacklisted_tokens.reason IS 'Razón de invalidación: logout, password_change, security_breach, etc.';
@@ -0,0 +1,97 @@
+-- Benchmark de volumen: clave VARCHAR (JWT completo) vs bytea (SHA-256).
+--
+-- Uso (BD desechable, no la de la aplicación):
+--   psql -d facturacion_bench -f src/test/resources/db/benchmark/token_key_volume.sql
+--
+-- Crea 10M filas en cada layout, reporta el tamaño de tabla e índice y la
+-- latencia de búsqueda por clave primaria (1000 búsquedas aleatorias, en caliente).
+-- Los tokens sintéticos miden ~330 bytes, como un access token típico de la app.
+
+\timing off
+SET client_min_messages = warning;
+
+DROP SCHEMA IF EXISTS token_bench CASCADE;
+CREATE SCHEMA token_bench;
+
+-- Tokens sintéticos con el tamaño de un JWT HS256 con los claims de la app
+CREATE UNLOGGED TABLE token_bench.source AS
+SELECT i,
+       'eyJhbGciOiJIUzI1NiJ9.' || encode(convert_to(repeat(md5(i::text), 7), 'UTF8'), 'base64') || '.' || md5('sig' || i) AS token
+FROM generate_series(1, 10000000) AS i;
+
+CREATE TABLE token_bench.by_token (
+    token      VARCHAR(500) NOT NULL PRIMARY KEY,
+    user_id    UUID         NOT NULL,
+    expires_at TIMESTAMP    NOT NULL
+);
+
+CREATE TABLE token_bench.by_hash (
+    token_hash BYTEA     NOT NULL PRIMARY KEY,
+    user_id    UUID      NOT NULL,
+    expires_at TIMESTAMP NOT NULL
+);
+
+INSERT INTO token_bench.by_token
+SELECT token, gen_random_uuid(), now() + interval '1 day' FROM token_bench.source;
+
+INSERT INTO token_bench.by_hash
+SELECT sha256(convert_to(token, 'UTF8')), gen_random_uuid(), now() + interval '1 day' FROM token_bench.source;
+
+VACUUM ANALYZE token_bench.by_token;
+VACUUM ANALYZE token_bench.by_hash;
+
+-- ============= TAMAÑOS =============
+
+SELECT c.relname                                   AS relation,
+       pg_size_pretty(pg_relation_size(c.oid))     AS size
+FROM pg_class c
+JOIN pg_namespace n ON n.oid = c.relnamespace
+WHERE n.nspname = 'token_bench' AND c.relname IN ('by_token', 'by_token_pkey', 'by_hash', 'by_hash_pkey')
+ORDER BY c.relname;
+
+-- ============= LATENCIA DE BÚSQUEDA =============
+
+CREATE TEMP TABLE probes AS
+SELECT token, sha256(convert_to(token, 'UTF8')) AS token_hash
+FROM token_bench.source
+ORDER BY random()
+LIMIT 1000;
+
+CREATE OR REPLACE FUNCTION pg_temp.bench(layout text) RETURNS TABLE(avg_us numeric, p99_us numeric) AS $$
+DECLARE
+    p record;
+    t0 timestamptz;
+    samples numeric[] := '{}';
+BEGIN
+    -- Calentamiento: cargar las páginas del índice en shared buffers
+    FOR p IN SELECT * FROM probes LOOP
+        IF layout = 'token' THEN
+            PERFORM 1 FROM token_bench.by_token WHERE token = p.token;
+        ELSE
+            PERFORM 1 FROM token_bench.by_hash WHERE token_hash = p.token_hash;
+        END IF;
+    END LOOP;
+
+    FOR p IN SELECT * FROM probes LOOP
+        t0 := clock_timestamp();
+        IF layout = 'token' THEN
+            PERFORM 1 FROM token_bench.by_token WHERE token = p.token;
+        ELSE
+            PERFORM 1 FROM token_bench.by_hash WHERE token_hash = p.token_hash;
+        END IF;
+        samples := samples || (extract(epoch FROM clock_timestamp() - t0) * 1000000)::numeric;
+    END LOOP;
+
+    RETURN QUERY
+    SELECT round(avg(s), 1),
+           round((percentile_cont(0.99) WITHIN GROUP (ORDER BY s))::numeric, 1)
+    FROM unnest(samples) AS s;
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT 'VARCHAR(500) token' AS layout, * FROM pg_temp.bench('token')
+UNION ALL
+SELECT 'BYTEA sha256'       AS layout, * FROM pg_temp.bench('hash');
+
+-- Limpieza
+DROP SCHEMA token_bench CASCADE;
@@ -0,0 +1,91 @@
+-- Benchmark de inserción: clave primaria UUIDv4 (aleatoria) vs UUIDv7 (ordenada por tiempo).
+--
+-- Uso (BD desechable, no la de la aplicación; shared_buffers menor que el índice final):
+--   psql -d facturacion_bench -f src/test/resources/db/benchmark/uuid_v4_v7_insert.sql
+--
+-- Inserta 20M filas en cada tabla, en lotes de 1M, con la forma de security.users.
+-- Reporta el throughput de cada lote (con v4 cae a medida que el índice deja de
+-- caber en memoria) y el tamaño final de tabla e índice.
+
+\timing off
+SET client_min_messages = notice;
+
+DROP SCHEMA IF EXISTS uuid_bench CASCADE;
+CREATE SCHEMA uuid_bench;
+
+-- UUIDv7 en SQL: 48 bits de timestamp (ms) + versión + variante + bits aleatorios.
+-- Igual que UuidV7Generator, salvo el contador monótono dentro del mismo ms.
+CREATE FUNCTION uuid_bench.uuid_v7() RETURNS uuid AS $$
+    SELECT encode(
+        set_bit(set_bit(
+            overlay(uuid_send(gen_random_uuid())
+                    PLACING substring(int8send(floor(extract(epoch FROM clock_timestamp()) * 1000)::bigint) FROM 3)
+                    FROM 1 FOR 6),
+            52, 1), 53, 1),
+        'hex')::uuid;
+$$ LANGUAGE sql VOLATILE;
+
+CREATE TABLE uuid_bench.users_v4 (
+    id         UUID         NOT NULL PRIMARY KEY,
+    email      VARCHAR(100) NOT NULL,
+    created_at TIMESTAMP    NOT NULL
+);
+
+CREATE TABLE uuid_bench.users_v7 (LIKE uuid_bench.users_v4 INCLUDING ALL);
+
+CREATE TABLE uuid_bench.results (
+    layout   TEXT,
+    batch    INT,
+    rows_sec NUMERIC
+);
+
+DO $$
+DECLARE
+    batch_size CONSTANT INT := 1000000;
+    batches    CONSTANT INT := 20;
+    t0 timestamptz;
+BEGIN
+    FOR b IN 1..batches LOOP
+        t0 := clock_timestamp();
+        INSERT INTO uuid_bench.users_v4
+        SELECT gen_random_uuid(), 'user' || i || '@example.com', now()
+        FROM generate_series(1, batch_size) AS i;
+        INSERT INTO uuid_bench.results
+        VALUES ('v4', b, round(batch_size / extract(epoch FROM clock_timestamp() - t0)));
+
+        t0 := clock_timestamp();
+        INSERT INTO uuid_bench.users_v7
+        SELECT uuid_bench.uuid_v7(), 'user' || i || '@example.com', now()
+        FROM generate_series(1, batch_size) AS i;
+        INSERT INTO uuid_bench.results
+        VALUES ('v7', b, round(batch_size / extract(epoch FROM clock_timestamp() - t0)));
+
+        RAISE NOTICE 'Lote % de % insertado', b, batches;
+        COMMIT;
+    END LOOP;
+END;
+$$;
+
+-- ============= THROUGHPUT POR LOTE (filas/s) =============
+
+SELECT batch,
+       max(rows_sec) FILTER (WHERE layout = 'v4') AS v4_rows_sec,
+       max(rows_sec) FILTER (WHERE layout = 'v7') AS v7_rows_sec
+FROM uuid_bench.results
+GROUP BY batch
+ORDER BY batch;
+
+-- ============= TAMAÑOS =============
+
+VACUUM ANALYZE uuid_bench.users_v4;
+VACUUM ANALYZE uuid_bench.users_v7;
+
+SELECT c.relname                               AS relation,
+       pg_size_pretty(pg_relation_size(c.oid)) AS size
+FROM pg_class c
+JOIN pg_namespace n ON n.oid = c.relnamespace
+WHERE n.nspname = 'uuid_bench' AND c.relname IN ('users_v4', 'users_v4_pkey', 'users_v7', 'users_v7_pkey')
+ORDER BY c.relname;
+
+-- Limpieza
+DROP SCHEMA uuid_bench CASCADE;